@@ -1,25 +1,38 @@
 package game;
 
+import game.input.LatencyTracker;
+
 import javax.swing.*;
 import java.awt.*;
 
 public class Display extends JPanel {
     private final Game game;
+    private LatencyTracker latencyTracker;
 
     public Display(Game game) {
         super();
         this.game = game;
-        game.add(this);
     }
 
     @Override
     public void paint(Graphics g) {
         Graphics2D g2 = (Graphics2D) g;
+        applyRenderingHints(g2);
+
+        long tick = game.getTickCount();
+        game.render(g2);
+        if (latencyTracker != null) {
+            latencyTracker.framePresented(tick, System.nanoTime());
+        }
+    }
 
+    public static void applyRenderingHints(Graphics2D g2) {
         g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
         g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
         g2.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+    }
 
-        game.render(g2);
+    public void setLatencyTracker(LatencyTracker latencyTracker) {
+        this.latencyTracker = latencyTracker;
     }
 }
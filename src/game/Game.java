@@ -1,59 +1,74 @@
 package game;
 
+import game.input.LatencyTracker;
 import game.objects.creatures.Player;
-import game.objects.creatures.enemy.ChasingEnemy;
-import game.objects.creatures.enemy.CuttingEnemy;
+import game.objects.creatures.enemy.ChasingPolicy;
+import game.objects.creatures.enemy.CuttingPolicy;
 import game.objects.creatures.enemy.Enemy;
-import game.objects.creatures.enemy.RandomEnemy;
+import game.objects.creatures.enemy.PathFinder;
+import game.objects.creatures.enemy.RandomPolicy;
+import game.session.SessionHost;
+import game.trace.TraceWriter;
 
 import javax.swing.*;
 import java.awt.*;
-import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Consumer;
+
+public class Game {
+    public static final long TICK_NANOS = 1_000_000_000L / 60L;
 
-public class Game extends JFrame {
-    private final Display display;
     private final GameMap map;
-    private final Player player;
+    private final List<Player> players;
 
+    private volatile long tickCount;
     private boolean won;
+    private boolean lost;
+    private Consumer<String> announcer;
 
     private final Enemy[] enemies;
+    private PathFinder pathFinder;
 
     public Game() {
-        super("Game");
+        this(new Random());
+    }
 
-        display = new Display(this);
+    // Enemies draw every random decision from this generator, so a seeded one makes the game repeatable.
+    public Game(Random random) {
         map = new GameMap(40);
-        player = new Player(this, 13.5, 10.5, 0.375, 0.07);
-        addKeyListener(player);
+        players = new ArrayList<>();
+        announcer = message -> {
+        };
 
         enemies = new Enemy[]{
-                new ChasingEnemy(this, player, 12.5, 8.5, 0.375, 0.06, Color.RED),
-                new CuttingEnemy(this, player, 13.5, 8.5, 0.375, 0.065, Color.GREEN),
-                new RandomEnemy(this, player, 14.5, 8.5, 0.375, 0.07, Color.MAGENTA)
+                new Enemy(this, 12.5, 8.5, 0.375, 0.06, Color.RED, new ChasingPolicy(), random),
+                new Enemy(this, 13.5, 8.5, 0.375, 0.065, Color.GREEN, new CuttingPolicy(), random),
+                new Enemy(this, 14.5, 8.5, 0.375, 0.07, Color.MAGENTA, new RandomPolicy(), random)
         };
+    }
 
-        setSize(1096, 759);
-        setResizable(false);
-        setDefaultCloseOperation(EXIT_ON_CLOSE);
-        setLocationRelativeTo(null);
-        setVisible(true);
-
-        startGameLoop();
+    public Player addPlayer() {
+        Player player = new Player(this, 13.5, 10.5, 0.375, 0.07);
+        players.add(player);
+        return player;
     }
 
-    private void startGameLoop() {
-        Executors.newSingleThreadScheduledExecutor().scheduleAtFixedRate(() -> {
-            tick();
-            display.repaint();
-        }, 0L, 1000L / 60L, TimeUnit.MILLISECONDS);
+    public void removePlayer(Player player) {
+        players.remove(player);
     }
 
     private void reset() {
         won = false;
+        lost = false;
         map.reset();
-        player.reset();
+        for (int i = 0; i < players.size(); i++) {
+            players.get(i).reset();
+        }
         for (Enemy enemy : enemies) {
             enemy.reset();
         }
@@ -64,43 +79,119 @@ public class Game extends JFrame {
     }
 
     public void lose() {
-        JOptionPane.showMessageDialog(null, "Game Over!");
-        reset();
+        lost = true;
     }
 
-    private void tick() {
-        if (won) {
-            JOptionPane.showMessageDialog(null, "You Won!");
+    public void tick() {
+        if (won || lost) {
+            announcer.accept(won ? "You Won!" : "Game Over!");
             reset();
         }
-        player.tick();
+        for (int i = 0; i < players.size(); i++) {
+            players.get(i).tick();
+        }
         for (Enemy enemy : enemies) {
             enemy.tick();
         }
+        tickCount++;
     }
 
     public void render(Graphics2D g2) {
-        g2.setColor(Color.BLACK);
-        g2.fillRect(0, 0, getWidth(), getHeight());
-
         int tileSize = map.getTileSize();
 
+        g2.setColor(Color.BLACK);
+        g2.fillRect(0, 0, map.getWidth() * tileSize, map.getHeight() * tileSize);
+
         map.render(g2, tileSize);
-        player.render(g2, tileSize);
+        for (int i = 0; i < players.size(); i++) {
+            players.get(i).render(g2, tileSize);
+        }
         for (Enemy enemy : enemies) {
             enemy.render(g2, tileSize);
         }
     }
 
+    public Player closestPlayer(double x, double y) {
+        Player closestPlayer = null;
+        double closestSqDistance = Double.MAX_VALUE;
+        for (int i = 0; i < players.size(); i++) {
+            Player player = players.get(i);
+            double difX = player.getCenterX() - x;
+            double difY = player.getCenterY() - y;
+            double sqDistance = difX * difX + difY * difY;
+            if (sqDistance < closestSqDistance) {
+                closestPlayer = player;
+                closestSqDistance = sqDistance;
+            }
+        }
+        return closestPlayer;
+    }
+
+    public void setAnnouncer(Consumer<String> announcer) {
+        this.announcer = announcer;
+    }
+
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    public PathFinder getPathFinder() {
+        // Created on first use so that rooms nobody plays in stay small.
+        if (pathFinder == null) {
+            pathFinder = new PathFinder(map);
+        }
+        return pathFinder;
+    }
+
     public GameMap getMap() {
         return map;
     }
 
+    public List<Player> getPlayers() {
+        return players;
+    }
+
     public Enemy[] getEnemies() {
         return enemies;
     }
 
-    public static void main(String[] args) {
-        new Game();
+    public static void main(String[] args) throws IOException {
+        Game game = new Game();
+        Player player = game.addPlayer();
+        game.setAnnouncer(message -> JOptionPane.showMessageDialog(null, message));
+
+        TraceWriter trace = args.length > 1 && args[0].equals("--trace") ? new TraceWriter(Path.of(args[1]), game) : null;
+
+        LatencyTracker latency = new LatencyTracker();
+        player.setLatencyTracker(latency);
+        SessionHost host = new SessionHost(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            // Stop ticking first: the trace may only be touched by one thread at a time.
+            host.close();
+            System.out.println(latency.report());
+            if (trace != null && !host.isTerminated()) {
+                // A tick is still running (the announcer dialog blocks it), so it may be recording.
+                // Leave the trace unclosed; readers count its whole blocks instead.
+                System.err.println("Game still ticking, leaving the trace unclosed");
+            } else if (trace != null) {
+                try {
+                    trace.close();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }));
+
+        Window window = new Window(game);
+        window.setLatencyTracker(latency);
+        window.addKeyListener(player);
+
+        host.open(() -> {
+            game.tick();
+            if (trace != null) {
+                trace.record(game);
+            }
+            window.repaint();
+        });
     }
-}
\ No newline at end of file
+}
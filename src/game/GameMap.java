@@ -30,9 +30,14 @@ public class GameMap extends GameObject {
             {1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1}
     };
 
+    // Tiles are immutable, so every map starts out sharing the same instances.
+    private static final Tile[][] INITIAL_TILES = createInitialTiles();
+    private static final Tile[][] EMPTY_TILES = createEmptyTiles();
+
     private final int tileSize;
 
     private final Tile[][] tiles;
+    private int dotCount;
 
     public GameMap(int tileSize) {
         this.tileSize = tileSize;
@@ -41,9 +46,10 @@ public class GameMap extends GameObject {
     }
 
 
-    public void reset() {
-        for (int y = 0; y < getHeight(); y++) {
-            for (int x = 0; x < getWidth(); x++) {
+    private static Tile[][] createInitialTiles() {
+        Tile[][] tiles = new Tile[DEFAULT_MAP.length][DEFAULT_MAP[0].length];
+        for (int y = 0; y < tiles.length; y++) {
+            for (int x = 0; x < tiles[y].length; x++) {
                 tiles[y][x] = switch (DEFAULT_MAP[y][x]) {
                     case 1 -> new Block(x, y);
                     case 2 -> new Dot(x, y);
@@ -51,27 +57,45 @@ public class GameMap extends GameObject {
                 };
             }
         }
+        return tiles;
     }
 
-    @Override
-    public void render(Graphics2D g, int tileSize) {
-        for (Tile[] row : tiles) {
-            for (Tile tile : row) {
-                tile.render(g, tileSize);
+    private static Tile[][] createEmptyTiles() {
+        Tile[][] tiles = new Tile[DEFAULT_MAP.length][DEFAULT_MAP[0].length];
+        for (int y = 0; y < tiles.length; y++) {
+            for (int x = 0; x < tiles[y].length; x++) {
+                tiles[y][x] = new Air(x, y);
             }
         }
+        return tiles;
     }
 
-    public int dotCount() {
-        int sum = 0;
+    public void reset() {
+        for (int y = 0; y < getHeight(); y++) {
+            System.arraycopy(INITIAL_TILES[y], 0, tiles[y], 0, getWidth());
+        }
+
+        dotCount = 0;
         for (Tile[] row : tiles) {
             for (Tile tile : row) {
                 if (tile instanceof Dot) {
-                    sum++;
+                    dotCount++;
                 }
             }
         }
-        return sum;
+    }
+
+    @Override
+    public void render(Graphics2D g, int tileSize) {
+        for (Tile[] row : tiles) {
+            for (Tile tile : row) {
+                tile.render(g, tileSize);
+            }
+        }
+    }
+
+    public int dotCount() {
+        return dotCount;
     }
 
     public boolean isFree(int x, int y) {
@@ -98,7 +122,17 @@ public class GameMap extends GameObject {
         return tiles[y][x];
     }
 
+    public void removeDot(int x, int y) {
+        setTile(x, y, EMPTY_TILES[y][x]);
+    }
+
     public void setTile(int x, int y, Tile tile) {
+        if (tiles[y][x] instanceof Dot) {
+            dotCount--;
+        }
+        if (tile instanceof Dot) {
+            dotCount++;
+        }
         tiles[y][x] = tile;
     }
 }
\ No newline at end of file
@@ -0,0 +1,26 @@
+package game;
+
+import game.input.LatencyTracker;
+
+import javax.swing.*;
+
+public class Window extends JFrame {
+    private final Display display;
+
+    public Window(Game game) {
+        super("Game");
+
+        display = new Display(game);
+        add(display);
+
+        setSize(1096, 759);
+        setResizable(false);
+        setDefaultCloseOperation(EXIT_ON_CLOSE);
+        setLocationRelativeTo(null);
+        setVisible(true);
+    }
+
+    public void setLatencyTracker(LatencyTracker latencyTracker) {
+        display.setLatencyTracker(latencyTracker);
+    }
+}
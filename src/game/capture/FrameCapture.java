@@ -0,0 +1,149 @@
+package game.capture;
+
+import game.Display;
+import game.Game;
+import game.GameMap;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+
+public class FrameCapture<T> implements Closeable {
+    private final FrameEncoder<T> encoder;
+    private final BlockingQueue<BufferedImage> free;
+    private final ExecutorService workers;
+    private final Semaphore inFlight;
+    private final BlockingQueue<Future<T>> pending;
+    private final Future<T> end;
+    private final Thread writer;
+
+    private volatile IOException failure;
+    private long capturedFrames;
+    private long droppedFrames;
+
+    public FrameCapture(Game game, FrameEncoder<T> encoder, int workerCount) {
+        this.encoder = encoder;
+
+        GameMap map = game.getMap();
+        int width = map.getWidth() * map.getTileSize();
+        int height = map.getHeight() * map.getTileSize();
+
+        // Two frames per worker keeps every worker busy while the next frame is being rendered.
+        int frameCount = workerCount * 2;
+        free = new ArrayBlockingQueue<>(frameCount);
+        for (int i = 0; i < frameCount; i++) {
+            free.add(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB));
+        }
+
+        workers = Executors.newFixedThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "FrameCapture-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Bounds the prepared frames that wait for an earlier, slower frame before they can be written.
+        inFlight = new Semaphore(frameCount * 2);
+        pending = new LinkedBlockingQueue<>();
+        end = CompletableFuture.completedFuture(null);
+
+        writer = new Thread(this::drain, "FrameCapture-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    public void capture(Game game) throws IOException, InterruptedException {
+        checkFailure();
+        inFlight.acquire();
+        submit(game, free.take());
+    }
+
+    public boolean tryCapture(Game game) throws IOException {
+        checkFailure();
+        if (!inFlight.tryAcquire()) {
+            droppedFrames++;
+            return false;
+        }
+        BufferedImage frame = free.poll();
+        if (frame == null) {
+            inFlight.release();
+            droppedFrames++;
+            return false;
+        }
+        submit(game, frame);
+        return true;
+    }
+
+    private void submit(Game game, BufferedImage frame) {
+        Graphics2D g = frame.createGraphics();
+        Display.applyRenderingHints(g);
+        game.render(g);
+        g.dispose();
+
+        pending.add(workers.submit(() -> {
+            try {
+                return encoder.prepare(frame);
+            } finally {
+                free.add(frame);
+            }
+        }));
+        capturedFrames++;
+    }
+
+    private void drain() {
+        try {
+            Future<T> next;
+            while ((next = pending.take()) != end) {
+                try {
+                    T prepared = next.get();
+                    if (failure == null) {
+                        encoder.write(prepared);
+                    }
+                } catch (ExecutionException e) {
+                    failure = e.getCause() instanceof IOException io ? io : new IOException(e.getCause());
+                } catch (IOException e) {
+                    failure = e;
+                } finally {
+                    inFlight.release();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void checkFailure() throws IOException {
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    public long getCapturedFrames() {
+        return capturedFrames;
+    }
+
+    public long getDroppedFrames() {
+        return droppedFrames;
+    }
+
+    @Override
+    public void close() throws IOException {
+        pending.add(end);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        workers.shutdown();
+        encoder.close();
+        checkFailure();
+    }
+}
@@ -0,0 +1,13 @@
+package game.capture;
+
+import java.awt.image.BufferedImage;
+import java.io.Closeable;
+import java.io.IOException;
+
+// prepare() runs on any worker thread and may run for several frames at once; write() is called on a
+// single thread, once per frame, in capture order.
+public interface FrameEncoder<T> extends Closeable {
+    T prepare(BufferedImage frame) throws IOException;
+
+    void write(T prepared) throws IOException;
+}
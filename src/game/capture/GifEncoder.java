@@ -0,0 +1,166 @@
+package game.capture;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+public class GifEncoder implements FrameEncoder<BufferedImage> {
+    private static final long NANOS_PER_CENTISECOND = 10_000_000L;
+
+    private final ImageWriter writer;
+    private final ImageOutputStream out;
+    private final long frameNanos;
+    private final Queue<BufferedImage> free;
+
+    // The last frame written, which the next one is compared against.
+    private BufferedImage previous;
+    private long writtenFrames;
+    private long writtenCentiseconds;
+
+    public GifEncoder(Path file, long frameNanos) throws IOException {
+        this.frameNanos = frameNanos;
+        free = new ConcurrentLinkedQueue<>();
+        writer = ImageIO.getImageWritersByFormatName("gif").next();
+        out = ImageIO.createImageOutputStream(file.toFile());
+        writer.setOutput(out);
+        writer.prepareWriteSequence(null);
+    }
+
+    @Override
+    public BufferedImage prepare(BufferedImage frame) {
+        // Quantizing to the default 6x6x6 palette is the expensive part, so it happens here in parallel.
+        // The palette holds all of the game's colors exactly.
+        BufferedImage indexed = free.poll();
+        if (indexed == null) {
+            indexed = new BufferedImage(frame.getWidth(), frame.getHeight(), BufferedImage.TYPE_BYTE_INDEXED);
+        }
+        Graphics2D g = indexed.createGraphics();
+        g.drawImage(frame, 0, 0, null);
+        g.dispose();
+        return indexed;
+    }
+
+    @Override
+    public void write(BufferedImage prepared) throws IOException {
+        // Frames are compared here rather than in prepare, since only write sees them in order. With
+        // disposal "none" the rest of the picture stays from the frames before.
+        Rectangle changed = previous == null ? new Rectangle(prepared.getWidth(), prepared.getHeight()) : changedRegion(previous, prepared);
+
+        // Frames are a whole number of centiseconds long; carrying the rounding over keeps the
+        // animation at the speed of the game.
+        writtenFrames++;
+        long endCentiseconds = (writtenFrames * frameNanos + NANOS_PER_CENTISECOND / 2) / NANOS_PER_CENTISECOND;
+        int delay = (int) (endCentiseconds - writtenCentiseconds);
+        writtenCentiseconds = endCentiseconds;
+
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setSourceRegion(changed);
+        IIOMetadata metadata = createMetadata(prepared, changed, delay, previous == null);
+        writer.writeToSequence(new IIOImage(prepared, null, metadata), param);
+
+        if (previous != null) {
+            free.add(previous);
+        }
+        previous = prepared;
+    }
+
+    private static Rectangle changedRegion(BufferedImage before, BufferedImage after) {
+        byte[] a = ((DataBufferByte) before.getRaster().getDataBuffer()).getData();
+        byte[] b = ((DataBufferByte) after.getRaster().getDataBuffer()).getData();
+        int width = after.getWidth();
+        int height = after.getHeight();
+
+        int minX = width;
+        int minY = height;
+        int maxX = -1;
+        int maxY = -1;
+        for (int y = 0; y < height; y++) {
+            int row = y * width;
+            int x = 0;
+            while (x < width && a[row + x] == b[row + x]) {
+                x++;
+            }
+            if (x == width) {
+                continue;
+            }
+            int last = width - 1;
+            while (a[row + last] == b[row + last]) {
+                last--;
+            }
+            minX = Math.min(minX, x);
+            maxX = Math.max(maxX, last);
+            minY = Math.min(minY, y);
+            maxY = y;
+        }
+
+        if (maxY < 0) {
+            // Nothing changed, but the frame still has to take up its time.
+            return new Rectangle(0, 0, 1, 1);
+        }
+        return new Rectangle(minX, minY, maxX - minX + 1, maxY - minY + 1);
+    }
+
+    private IIOMetadata createMetadata(BufferedImage sample, Rectangle region, int delay, boolean first) throws IOException {
+        IIOMetadata metadata = writer.getDefaultImageMetadata(ImageTypeSpecifier.createFromRenderedImage(sample), null);
+        String format = metadata.getNativeMetadataFormatName();
+        IIOMetadataNode root = (IIOMetadataNode) metadata.getAsTree(format);
+
+        IIOMetadataNode descriptor = child(root, "ImageDescriptor");
+        descriptor.setAttribute("imageLeftPosition", Integer.toString(region.x));
+        descriptor.setAttribute("imageTopPosition", Integer.toString(region.y));
+        descriptor.setAttribute("imageWidth", Integer.toString(region.width));
+        descriptor.setAttribute("imageHeight", Integer.toString(region.height));
+        descriptor.setAttribute("interlaceFlag", "FALSE");
+
+        IIOMetadataNode control = child(root, "GraphicControlExtension");
+        control.setAttribute("disposalMethod", "none");
+        control.setAttribute("userInputFlag", "FALSE");
+        control.setAttribute("transparentColorFlag", "FALSE");
+        control.setAttribute("delayTime", Integer.toString(delay));
+        control.setAttribute("transparentColorIndex", "0");
+
+        if (first) {
+            IIOMetadataNode loop = new IIOMetadataNode("ApplicationExtension");
+            loop.setAttribute("applicationID", "NETSCAPE");
+            loop.setAttribute("authenticationCode", "2.0");
+            loop.setUserObject(new byte[]{1, 0, 0});
+            child(root, "ApplicationExtensions").appendChild(loop);
+        }
+
+        metadata.setFromTree(format, root);
+        return metadata;
+    }
+
+    private static IIOMetadataNode child(IIOMetadataNode root, String name) {
+        for (int i = 0; i < root.getLength(); i++) {
+            if (root.item(i).getNodeName().equals(name)) {
+                return (IIOMetadataNode) root.item(i);
+            }
+        }
+        IIOMetadataNode node = new IIOMetadataNode(name);
+        root.appendChild(node);
+        return node;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            writer.endWriteSequence();
+        } finally {
+            out.close();
+            writer.dispose();
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package game.capture;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class PngSequenceEncoder implements FrameEncoder<byte[]> {
+    private final Path directory;
+    private int index;
+
+    public PngSequenceEncoder(Path directory) throws IOException {
+        this.directory = Files.createDirectories(directory);
+    }
+
+    @Override
+    public byte[] prepare(BufferedImage frame) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(frame, "png", out);
+        return out.toByteArray();
+    }
+
+    @Override
+    public void write(byte[] prepared) throws IOException {
+        Files.write(directory.resolve(String.format("frame-%06d.png", index++)), prepared);
+    }
+
+    @Override
+    public void close() {
+        // every frame is its own file
+    }
+}
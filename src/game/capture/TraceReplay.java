@@ -0,0 +1,96 @@
+package game.capture;
+
+import game.Game;
+import game.GameMap;
+import game.objects.creatures.Player;
+import game.objects.creatures.enemy.Enemy;
+import game.trace.TraceReader;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+public class TraceReplay {
+    private final TraceReader trace;
+    // The view is never ticked; every frame is put together from the trace.
+    private final Game view;
+    private int dotsRemaining;
+
+    public TraceReplay(TraceReader trace) {
+        this.trace = trace;
+        view = new Game();
+        for (int p = 0; p < trace.getPlayerCount(); p++) {
+            view.addPlayer();
+        }
+        dotsRemaining = view.getMap().dotCount();
+    }
+
+    public void apply(long tick) {
+        GameMap map = view.getMap();
+        if (trace.getDotsRemaining(tick) > dotsRemaining) {
+            map.reset();
+        }
+        dotsRemaining = trace.getDotsRemaining(tick);
+
+        List<Player> players = view.getPlayers();
+        for (int p = 0; p < players.size(); p++) {
+            float x = trace.getX(p, tick);
+            if (!Float.isNaN(x)) {
+                players.get(p).setCenter(x, trace.getY(p, tick));
+            }
+            int eaten = trace.getEatenDotIndex(p, tick);
+            if (eaten >= 0) {
+                map.removeDot(eaten % map.getWidth(), eaten / map.getWidth());
+            }
+        }
+
+        Enemy[] enemies = view.getEnemies();
+        for (int e = 0; e < enemies.length; e++) {
+            enemies[e].setCenter(trace.getX(players.size() + e, tick), trace.getY(players.size() + e, tick));
+            enemies[e].setTarget(trace.getTargetX(e, tick), trace.getTargetY(e, tick));
+        }
+    }
+
+    public Game getView() {
+        return view;
+    }
+
+    private static <T> long export(TraceReplay replay, TraceReader trace, FrameEncoder<T> encoder, int every, int workers) throws IOException, InterruptedException {
+        try (FrameCapture<T> capture = new FrameCapture<>(replay.getView(), encoder, workers)) {
+            for (long tick = 0; tick < trace.getTickCount(); tick++) {
+                // Dot events have to be replayed on every tick, even the ones that are not captured.
+                replay.apply(tick);
+                if (tick % every == 0) {
+                    capture.capture(replay.getView());
+                }
+            }
+            return capture.getCapturedFrames();
+        }
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 2) {
+            System.err.println("Usage: TraceReplay <trace> <out.gif | png directory> [ticks per frame] [workers]");
+            return;
+        }
+        Path out = Path.of(args[1]);
+        int every = args.length > 2 ? Integer.parseInt(args[2]) : 2;
+        int workers = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+
+        try (TraceReader trace = new TraceReader(Path.of(args[0]))) {
+            TraceReplay replay = new TraceReplay(trace);
+            long start = System.nanoTime();
+
+            long frames;
+            if (out.toString().endsWith(".gif")) {
+                frames = export(replay, trace, new GifEncoder(out, every * Game.TICK_NANOS), every, workers);
+            } else {
+                frames = export(replay, trace, new PngSequenceEncoder(out), every, workers);
+            }
+
+            double seconds = (System.nanoTime() - start) / 1e9;
+            double played = trace.getTickCount() * Game.TICK_NANOS / 1e9;
+            System.out.printf("Exported %d frames covering %.1fs of play in %.1fs (%.2fx real time)%n", frames, played, seconds, played / seconds);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package game.input;
+
+public class InputBuffer {
+    private static final int CAPACITY = 16;
+
+    private final int[] directionX;
+    private final int[] directionY;
+    private final long[] pressNanos;
+    private int head;
+    private int size;
+
+    public InputBuffer() {
+        directionX = new int[CAPACITY];
+        directionY = new int[CAPACITY];
+        pressNanos = new long[CAPACITY];
+    }
+
+    public synchronized void push(int directionX, int directionY, long pressNanos) {
+        if (size == CAPACITY) {
+            // Nobody mashes 16 keys in one tick; if they do, the oldest press is the least relevant.
+            head = (head + 1) % CAPACITY;
+            size--;
+        }
+        int tail = (head + size) % CAPACITY;
+        this.directionX[tail] = directionX;
+        this.directionY[tail] = directionY;
+        this.pressNanos[tail] = pressNanos;
+        size++;
+    }
+
+    public synchronized void drainTo(TurnBuffer turns, long tick) {
+        while (size > 0) {
+            turns.offer(directionX[head], directionY[head], pressNanos[head], tick);
+            head = (head + 1) % CAPACITY;
+            size--;
+        }
+    }
+
+    public synchronized void clear() {
+        head = 0;
+        size = 0;
+    }
+}
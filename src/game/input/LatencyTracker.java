@@ -0,0 +1,83 @@
+package game.input;
+
+// Measures from a key press to the first presented frame in which the player moves the pressed way.
+// Presses that never change the player's movement, because a newer press replaced them or no opening
+// came up in time, are not counted.
+public class LatencyTracker {
+    private static final long BUCKET_NANOS = 250_000L;
+    // Up to a second: a turn can wait HOLD_TICKS for an opening before it shows.
+    private static final int BUCKETS = 4000;
+    private static final int MAX_PENDING = 64;
+
+    private final long[] histogram;
+    private long count;
+    private long maxNanos;
+
+    private final long[] pendingPressNanos;
+    private final long[] pendingTick;
+    private int pendingSize;
+
+    public LatencyTracker() {
+        histogram = new long[BUCKETS];
+        pendingPressNanos = new long[MAX_PENDING];
+        pendingTick = new long[MAX_PENDING];
+    }
+
+    public synchronized void applied(long pressNanos, long tick) {
+        if (pendingSize == MAX_PENDING) {
+            // No frame has been presented for a long time; these presses are not representative.
+            return;
+        }
+        pendingPressNanos[pendingSize] = pressNanos;
+        pendingTick[pendingSize] = tick;
+        pendingSize++;
+    }
+
+    public synchronized void framePresented(long completedTicks, long presentNanos) {
+        int kept = 0;
+        for (int i = 0; i < pendingSize; i++) {
+            if (pendingTick[i] < completedTicks) {
+                record(presentNanos - pendingPressNanos[i]);
+            } else {
+                pendingPressNanos[kept] = pendingPressNanos[i];
+                pendingTick[kept] = pendingTick[i];
+                kept++;
+            }
+        }
+        pendingSize = kept;
+    }
+
+    private void record(long latencyNanos) {
+        histogram[(int) Math.min(BUCKETS - 1, Math.max(0L, latencyNanos / BUCKET_NANOS))]++;
+        count++;
+        maxNanos = Math.max(maxNanos, latencyNanos);
+    }
+
+    public synchronized long percentileNanos(double percentile) {
+        if (count == 0) {
+            return 0L;
+        }
+        long rank = (long) Math.ceil(percentile / 100.0 * count);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += histogram[i];
+            if (seen >= rank) {
+                return Math.min(maxNanos, (i + 1) * BUCKET_NANOS);
+            }
+        }
+        return maxNanos;
+    }
+
+    public synchronized long getCount() {
+        return count;
+    }
+
+    public synchronized long getMaxNanos() {
+        return maxNanos;
+    }
+
+    public synchronized String report() {
+        return String.format("press-to-movement-frame latency: n=%d p50=%.2fms p90=%.2fms p99=%.2fms max=%.2fms",
+                count, percentileNanos(50) / 1e6, percentileNanos(90) / 1e6, percentileNanos(99) / 1e6, maxNanos / 1e6);
+    }
+}
@@ -0,0 +1,102 @@
+package game.input;
+
+import game.GameMap;
+
+public class TurnBuffer {
+    // The direction currently being followed plus two queued turns, enough for a double tap.
+    private static final int CAPACITY = 3;
+    // How long a queued turn that cannot be taken yet keeps priority over a newer press.
+    private static final long HOLD_TICKS = 30;
+    // Marks a press whose latency has already been recorded.
+    private static final long RECORDED = Long.MIN_VALUE;
+
+    private final int[] directionX;
+    private final int[] directionY;
+    private final long[] offeredTick;
+    private final long[] pressNanos;
+    private int size;
+
+    public TurnBuffer() {
+        directionX = new int[CAPACITY];
+        directionY = new int[CAPACITY];
+        offeredTick = new long[CAPACITY];
+        pressNanos = new long[CAPACITY];
+    }
+
+    public void offer(int directionX, int directionY, long pressNanos, long tick) {
+        if (size > 0 && this.directionX[size - 1] == directionX && this.directionY[size - 1] == directionY) {
+            return;
+        }
+        if (size == CAPACITY) {
+            size--;
+        }
+        this.directionX[size] = directionX;
+        this.directionY[size] = directionY;
+        offeredTick[size] = tick;
+        this.pressNanos[size] = pressNanos;
+        size++;
+    }
+
+    // Decides which press is followed this tick, before the player moves.
+    public void update(GameMap map, int cellX, int cellY, int movingDirectionX, int movingDirectionY, long tick) {
+        // A newer press that takes effect right away wins over older turns still waiting for an opening.
+        for (int i = size - 1; i > 0; i--) {
+            if (appliesNow(i, map, cellX, cellY, movingDirectionX, movingDirectionY)) {
+                removeFirst(i, tick);
+                break;
+            }
+        }
+
+        while (size > 1) {
+            boolean taken = directionX[0] == movingDirectionX && directionY[0] == movingDirectionY;
+            boolean expired = tick - offeredTick[0] > HOLD_TICKS;
+            if (!taken && !expired) {
+                return;
+            }
+            removeFirst(1, tick);
+        }
+    }
+
+    private boolean appliesNow(int i, GameMap map, int cellX, int cellY, int movingDirectionX, int movingDirectionY) {
+        if (movingDirectionX == 0 && movingDirectionY == 0) {
+            return map.isFree(cellX + directionX[i], cellY + directionY[i]);
+        }
+        // A reversal stays on the same axis, so the player can always take it at once.
+        return directionX[i] == -movingDirectionX && directionY[i] == -movingDirectionY;
+    }
+
+    private void removeFirst(int count, long tick) {
+        System.arraycopy(directionX, count, directionX, 0, size - count);
+        System.arraycopy(directionY, count, directionY, 0, size - count);
+        System.arraycopy(offeredTick, count, offeredTick, 0, size - count);
+        System.arraycopy(pressNanos, count, pressNanos, 0, size - count);
+        size -= count;
+        // The next turn only starts waiting once it becomes the preferred direction.
+        offeredTick[0] = Math.max(offeredTick[0], tick);
+    }
+
+    // Called after the player moved: the followed press counts as handled on the tick the player starts
+    // moving in its direction, which is what the next presented frame shows. A press the player was
+    // already following when it came up changed nothing on screen and is not measured.
+    public void moved(int previousDirectionX, int previousDirectionY, int movingDirectionX, int movingDirectionY, long tick, LatencyTracker latency) {
+        if (size > 0 && pressNanos[0] != RECORDED && directionX[0] == movingDirectionX && directionY[0] == movingDirectionY) {
+            boolean changed = previousDirectionX != movingDirectionX || previousDirectionY != movingDirectionY;
+            if (changed && latency != null) {
+                latency.applied(pressNanos[0], tick);
+            }
+            pressNanos[0] = RECORDED;
+        }
+    }
+
+    public int getDirectionX() {
+        return size > 0 ? directionX[0] : 0;
+    }
+
+    public int getDirectionY() {
+        return size > 0 ? directionY[0] : 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+}
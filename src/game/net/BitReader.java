@@ -0,0 +1,36 @@
+package game.net;
+
+import java.nio.ByteBuffer;
+
+public class BitReader {
+    private ByteBuffer buffer;
+    private long bits;
+    private int bitCount;
+
+    public void begin(ByteBuffer buffer) {
+        this.buffer = buffer;
+        bits = 0L;
+        bitCount = 0;
+    }
+
+    public int read(int width) {
+        while (bitCount < width) {
+            bits |= (buffer.get() & 0xFFL) << bitCount;
+            bitCount += 8;
+        }
+        int value = (int) (bits & ((1L << width) - 1L));
+        bits >>>= width;
+        bitCount -= width;
+        return value;
+    }
+
+    public boolean readBoolean() {
+        return read(1) != 0;
+    }
+
+    public void end() {
+        buffer = null;
+        bits = 0L;
+        bitCount = 0;
+    }
+}
@@ -0,0 +1,38 @@
+package game.net;
+
+import java.nio.ByteBuffer;
+
+public class BitWriter {
+    private ByteBuffer buffer;
+    private long bits;
+    private int bitCount;
+
+    public void begin(ByteBuffer buffer) {
+        this.buffer = buffer;
+        bits = 0L;
+        bitCount = 0;
+    }
+
+    public void write(int value, int width) {
+        bits |= (value & ((1L << width) - 1L)) << bitCount;
+        bitCount += width;
+        while (bitCount >= 8) {
+            buffer.put((byte) bits);
+            bits >>>= 8;
+            bitCount -= 8;
+        }
+    }
+
+    public void writeBoolean(boolean value) {
+        write(value ? 1 : 0, 1);
+    }
+
+    public void end() {
+        if (bitCount > 0) {
+            buffer.put((byte) bits);
+        }
+        buffer = null;
+        bits = 0L;
+        bitCount = 0;
+    }
+}
@@ -0,0 +1,120 @@
+package game.net;
+
+import game.objects.creatures.Player;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+
+public class Connection {
+    private static final int OUTBOUND_CAPACITY = 16 * 1024;
+    private static final int INBOUND_CAPACITY = 256;
+
+    private final SocketChannel channel;
+    private SelectionKey key;
+    private final ByteBuffer in;
+    private final ByteBuffer out;
+
+    private Room room;
+    private Player player;
+    private boolean needsKeyframe;
+
+    public Connection(SocketChannel channel) {
+        this.channel = channel;
+        in = ByteBuffer.allocateDirect(INBOUND_CAPACITY);
+        out = ByteBuffer.allocateDirect(OUTBOUND_CAPACITY);
+    }
+
+    public boolean read() throws IOException {
+        return channel.read(in) >= 0;
+    }
+
+    public ByteBuffer getInbound() {
+        return in;
+    }
+
+    public synchronized boolean send(ByteBuffer frame) {
+        if (out.remaining() < frame.remaining()) {
+            // A slow client skips frames until it has drained, then catches up with a keyframe.
+            needsKeyframe = true;
+            return false;
+        }
+        out.put(frame);
+        frame.rewind();
+        return true;
+    }
+
+    public synchronized boolean flush() throws IOException {
+        out.flip();
+        try {
+            channel.write(out);
+        } finally {
+            out.compact();
+        }
+        return out.position() == 0;
+    }
+
+    public void flushFromTick() {
+        boolean drained;
+        try {
+            drained = flush();
+        } catch (IOException e) {
+            drained = false;
+        }
+        if (!drained) {
+            // Let the selector thread finish the write, or notice the failure and disconnect.
+            try {
+                key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                key.selector().wakeup();
+            } catch (CancelledKeyException e) {
+                // already disconnected
+            }
+        }
+    }
+
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+            // already gone
+        }
+    }
+
+    public SocketChannel getChannel() {
+        return channel;
+    }
+
+    public SelectionKey getKey() {
+        return key;
+    }
+
+    public void setKey(SelectionKey key) {
+        this.key = key;
+    }
+
+    public Room getRoom() {
+        return room;
+    }
+
+    public void setRoom(Room room) {
+        this.room = room;
+    }
+
+    public Player getPlayer() {
+        return player;
+    }
+
+    public void setPlayer(Player player) {
+        this.player = player;
+    }
+
+    public boolean needsKeyframe() {
+        return needsKeyframe;
+    }
+
+    public void setNeedsKeyframe(boolean needsKeyframe) {
+        this.needsKeyframe = needsKeyframe;
+    }
+}
@@ -0,0 +1,187 @@
+package game.net;
+
+import game.Game;
+import game.Window;
+import game.objects.creatures.Player;
+
+import java.awt.*;
+import java.awt.event.KeyAdapter;
+import java.awt.event.KeyEvent;
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.List;
+
+public class GameClient implements Runnable, Closeable {
+    // The local player keeps the usual yellow; everyone else in the room is drawn dimmer.
+    private static final Color LOCAL_PLAYER_COLOR = Color.YELLOW;
+    private static final Color REMOTE_PLAYER_COLOR = Color.YELLOW.darker().darker();
+
+    private final SocketChannel channel;
+    private final ByteBuffer in;
+    private final ByteBuffer out;
+    private final BitReader reader;
+
+    // The view is never ticked; it only mirrors the snapshots received from the server.
+    private final Game view;
+    private final Snapshot older;
+    private final Snapshot latest;
+    private long latestNanos;
+    private boolean synced;
+    private long bytesReceived;
+    private int snapshotsReceived;
+
+    public GameClient(InetSocketAddress address) throws IOException {
+        channel = SocketChannel.open(address);
+        channel.socket().setTcpNoDelay(true);
+        in = ByteBuffer.allocateDirect(16 * 1024);
+        out = ByteBuffer.allocateDirect(Protocol.JOIN_SIZE);
+        reader = new BitReader();
+
+        view = new Game();
+        older = new Snapshot(view);
+        latest = new Snapshot(view);
+    }
+
+    public void join(int roomId) throws IOException {
+        synchronized (out) {
+            out.clear();
+            out.put(Protocol.JOIN);
+            out.putInt(roomId);
+            send();
+        }
+    }
+
+    public void sendInput(int directionX, int directionY) throws IOException {
+        synchronized (out) {
+            out.clear();
+            out.put(Protocol.INPUT);
+            out.put(Protocol.encodeDirection(directionX, directionY));
+            send();
+        }
+    }
+
+    private void send() throws IOException {
+        out.flip();
+        while (out.hasRemaining()) {
+            channel.write(out);
+        }
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (channel.read(in) >= 0) {
+                in.flip();
+                while (in.remaining() >= Protocol.FRAME_HEADER_SIZE) {
+                    int length = in.getShort(in.position()) & 0xFFFF;
+                    if (in.remaining() < Protocol.FRAME_HEADER_SIZE + length) {
+                        break;
+                    }
+                    int end = in.position() + Protocol.FRAME_HEADER_SIZE + length;
+                    int limit = in.limit();
+
+                    in.position(in.position() + Protocol.FRAME_HEADER_SIZE);
+                    in.limit(end);
+                    receive(length);
+                    in.limit(limit);
+                    in.position(end);
+                }
+                in.compact();
+            }
+        } catch (IOException e) {
+            // connection closed
+        }
+    }
+
+    private synchronized void receive(int length) {
+        older.copyFrom(latest);
+        reader.begin(in);
+        boolean keyframe = latest.read(reader);
+        reader.end();
+
+        if (keyframe && !synced) {
+            older.copyFrom(latest);
+            synced = true;
+        }
+        latestNanos = System.nanoTime();
+        bytesReceived += Protocol.FRAME_HEADER_SIZE + length;
+        snapshotsReceived++;
+    }
+
+    public synchronized void interpolate(long nanos) {
+        if (!synced) {
+            return;
+        }
+        double alpha = Math.min(1.0, Math.max(0.0, (double) (nanos - latestNanos) / Game.TICK_NANOS));
+        latest.applyTo(view, older, alpha);
+
+        List<Player> players = view.getPlayers();
+        for (int i = 0; i < players.size(); i++) {
+            players.get(i).setColor(i == latest.getSlot() ? LOCAL_PLAYER_COLOR : REMOTE_PLAYER_COLOR);
+        }
+    }
+
+    public synchronized boolean isSynced() {
+        return synced;
+    }
+
+    public synchronized int getSlot() {
+        return latest.getSlot();
+    }
+
+    public synchronized int getTick() {
+        return latest.getTick();
+    }
+
+    public synchronized long getBytesReceived() {
+        return bytesReceived;
+    }
+
+    public synchronized int getSnapshotsReceived() {
+        return snapshotsReceived;
+    }
+
+    public Game getView() {
+        return view;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    public static void main(String[] args) throws IOException {
+        String host = args.length > 0 ? args[0] : "localhost";
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : 7777;
+        int roomId = args.length > 2 ? Integer.parseInt(args[2]) : 0;
+
+        GameClient client = new GameClient(new InetSocketAddress(host, port));
+        client.join(roomId);
+        new Thread(client, "GameClient").start();
+
+        Window window = new Window(client.getView());
+        window.addKeyListener(new KeyAdapter() {
+            @Override
+            public void keyPressed(KeyEvent e) {
+                try {
+                    switch (e.getKeyCode()) {
+                        case KeyEvent.VK_W -> client.sendInput(0, -1);
+                        case KeyEvent.VK_A -> client.sendInput(-1, 0);
+                        case KeyEvent.VK_S -> client.sendInput(0, 1);
+                        case KeyEvent.VK_D -> client.sendInput(1, 0);
+                    }
+                } catch (IOException ex) {
+                    throw new RuntimeException(ex);
+                }
+            }
+        });
+
+        new javax.swing.Timer((int) (Game.TICK_NANOS / 1_000_000L), e -> {
+            client.interpolate(System.nanoTime());
+            window.repaint();
+        }).start();
+    }
+}
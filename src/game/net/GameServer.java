@@ -0,0 +1,221 @@
+package game.net;
+
+import game.session.SessionHost;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+public class GameServer implements Runnable, Closeable {
+    private final SessionHost host;
+    private final Selector selector;
+    private final ServerSocketChannel serverChannel;
+
+    private final Map<Integer, Room> roomsById;
+    private final Consumer<SelectionKey> keyHandler;
+
+    private volatile boolean running;
+
+    public GameServer(InetSocketAddress address, SessionHost host) throws IOException {
+        this.host = host;
+        selector = Selector.open();
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(address);
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+
+        roomsById = new ConcurrentHashMap<>();
+        keyHandler = this::handle;
+    }
+
+    @Override
+    public void run() {
+        running = true;
+        try {
+            while (running) {
+                selector.select(keyHandler);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        } finally {
+            closeAll();
+        }
+    }
+
+    private void handle(SelectionKey key) {
+        if (!key.isValid()) {
+            return;
+        }
+        if (key.isAcceptable()) {
+            accept();
+            return;
+        }
+
+        Connection connection = (Connection) key.attachment();
+        if (key.isWritable()) {
+            flush(connection);
+        }
+        if (key.isValid() && key.isReadable()) {
+            receive(connection);
+        }
+    }
+
+    private void accept() {
+        try {
+            SocketChannel channel = serverChannel.accept();
+            if (channel == null) {
+                return;
+            }
+            channel.configureBlocking(false);
+            channel.socket().setTcpNoDelay(true);
+            Connection connection = new Connection(channel);
+            connection.setKey(channel.register(selector, SelectionKey.OP_READ, connection));
+        } catch (IOException e) {
+            // the client gave up before we got to it
+        }
+    }
+
+    private void receive(Connection connection) {
+        try {
+            if (!connection.read()) {
+                disconnect(connection);
+                return;
+            }
+        } catch (IOException e) {
+            disconnect(connection);
+            return;
+        }
+
+        ByteBuffer in = connection.getInbound();
+        in.flip();
+        while (in.hasRemaining()) {
+            byte type = in.get(in.position());
+            if (type == Protocol.JOIN && in.remaining() >= Protocol.JOIN_SIZE) {
+                in.get();
+                join(connection, in.getInt());
+                if (!connection.getChannel().isOpen()) {
+                    return;
+                }
+            } else if (type == Protocol.INPUT && in.remaining() >= Protocol.INPUT_SIZE) {
+                in.get();
+                byte direction = in.get();
+                if (connection.getRoom() != null) {
+                    connection.getRoom().input(connection, direction);
+                }
+            } else if (type != Protocol.JOIN && type != Protocol.INPUT) {
+                disconnect(connection);
+                return;
+            } else {
+                break;
+            }
+        }
+        in.compact();
+    }
+
+    private void join(Connection connection, int roomId) {
+        if (connection.getRoom() != null) {
+            leave(connection);
+        }
+
+        Room room = roomsById.get(roomId);
+        if (room == null) {
+            room = new Room(roomId);
+            try {
+                room.setSchedule(host.open(room));
+            } catch (IllegalStateException e) {
+                // Backpressure: the host is behind, keep the rooms it already runs on time.
+                disconnect(connection);
+                return;
+            }
+            roomsById.put(roomId, room);
+        }
+        if (!room.join(connection)) {
+            if (room.isEmpty()) {
+                removeRoom(room);
+            }
+            disconnect(connection);
+        }
+    }
+
+    private void leave(Connection connection) {
+        Room room = connection.getRoom();
+        room.leave(connection);
+        if (room.isEmpty()) {
+            removeRoom(room);
+        }
+    }
+
+    private void removeRoom(Room room) {
+        roomsById.remove(room.getId());
+        room.getSchedule().close();
+    }
+
+    private void flush(Connection connection) {
+        SelectionKey key = connection.getKey();
+        try {
+            boolean drained = connection.flush();
+            int interest = drained ? SelectionKey.OP_READ : SelectionKey.OP_READ | SelectionKey.OP_WRITE;
+            if (key.interestOps() != interest) {
+                key.interestOps(interest);
+            }
+        } catch (IOException e) {
+            disconnect(connection);
+        }
+    }
+
+    private void disconnect(Connection connection) {
+        if (connection.getRoom() != null) {
+            leave(connection);
+        }
+        connection.close();
+    }
+
+    private void closeAll() {
+        for (SelectionKey key : selector.keys()) {
+            if (key.attachment() instanceof Connection connection) {
+                connection.close();
+            }
+        }
+        try {
+            serverChannel.close();
+            selector.close();
+        } catch (IOException ignored) {
+            // shutting down anyway
+        }
+        for (Room room : roomsById.values()) {
+            room.getSchedule().close();
+        }
+        roomsById.clear();
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        selector.wakeup();
+    }
+
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    public int getRoomCount() {
+        return roomsById.size();
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 7777;
+        try (SessionHost host = new SessionHost()) {
+            GameServer server = new GameServer(new InetSocketAddress("localhost", port), host);
+            System.out.println("Listening on port " + server.getPort());
+            server.run();
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package game.net;
+
+public final class Protocol {
+    public static final byte JOIN = 1;
+    public static final byte INPUT = 2;
+
+    public static final int JOIN_SIZE = 5;
+    public static final int INPUT_SIZE = 2;
+
+    public static final int FRAME_HEADER_SIZE = 2;
+
+    private static final int[] DIRECTION_X = {0, 0, -1, 0, 1};
+    private static final int[] DIRECTION_Y = {0, -1, 0, 1, 0};
+
+    private Protocol() {
+    }
+
+    public static byte encodeDirection(int directionX, int directionY) {
+        for (int i = 0; i < DIRECTION_X.length; i++) {
+            if (DIRECTION_X[i] == directionX && DIRECTION_Y[i] == directionY) {
+                return (byte) i;
+            }
+        }
+        return 0;
+    }
+
+    public static int directionX(byte code) {
+        return code >= 0 && code < DIRECTION_X.length ? DIRECTION_X[code] : 0;
+    }
+
+    public static int directionY(byte code) {
+        return code >= 0 && code < DIRECTION_Y.length ? DIRECTION_Y[code] : 0;
+    }
+}
@@ -0,0 +1,133 @@
+package game.net;
+
+import game.Game;
+import game.session.ScheduledSession;
+import game.session.Session;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+public class Room implements Session {
+    private final int id;
+    private final Game game;
+    private final List<Connection> connections;
+
+    private final Snapshot previous;
+    private final Snapshot current;
+    private final BitWriter writer;
+    private final ByteBuffer deltaFrame;
+    private final ByteBuffer keyframeFrame;
+    private int tick;
+    private ScheduledSession schedule;
+
+    public Room(int id) {
+        this.id = id;
+        game = new Game();
+        connections = new ArrayList<>();
+        previous = new Snapshot(game);
+        current = new Snapshot(game);
+        current.capture(game, tick);
+
+        writer = new BitWriter();
+        deltaFrame = ByteBuffer.allocateDirect(current.maxFrameSize());
+        keyframeFrame = ByteBuffer.allocateDirect(current.maxFrameSize());
+    }
+
+    public synchronized boolean join(Connection connection) {
+        if (game.getPlayers().size() >= Snapshot.MAX_PLAYERS) {
+            return false;
+        }
+        connection.setRoom(this);
+        connection.setPlayer(game.addPlayer());
+        connection.setNeedsKeyframe(true);
+        connections.add(connection);
+        return true;
+    }
+
+    public synchronized void leave(Connection connection) {
+        connections.remove(connection);
+        game.removePlayer(connection.getPlayer());
+        connection.setRoom(null);
+        connection.setPlayer(null);
+    }
+
+    public synchronized void input(Connection connection, byte direction) {
+        int directionX = Protocol.directionX(direction);
+        int directionY = Protocol.directionY(direction);
+        // Clients only send real directions; a stop would hold back the player's queued turns.
+        if (connection.getRoom() == this && (directionX != 0 || directionY != 0)) {
+            connection.getPlayer().pushInput(directionX, directionY, System.nanoTime());
+        }
+    }
+
+    @Override
+    public synchronized void tick() {
+        game.tick();
+        tick++;
+
+        previous.copyFrom(current);
+        current.capture(game, tick);
+
+        boolean keyframeForAll = !current.canDeltaFrom(previous);
+        boolean deltaEncoded = false;
+        boolean keyframeEncoded = false;
+
+        for (int i = 0; i < connections.size(); i++) {
+            Connection connection = connections.get(i);
+            if (keyframeForAll || connection.needsKeyframe()) {
+                if (!keyframeEncoded) {
+                    encode(keyframeFrame, true);
+                    keyframeEncoded = true;
+                }
+                // Players leaving shifts the slots, but that changes the player count and so sends
+                // everyone a new keyframe.
+                Snapshot.writeSlot(keyframeFrame, game.getPlayers().indexOf(connection.getPlayer()));
+                if (connection.send(keyframeFrame)) {
+                    connection.setNeedsKeyframe(false);
+                }
+            } else {
+                if (!deltaEncoded) {
+                    encode(deltaFrame, false);
+                    deltaEncoded = true;
+                }
+                connection.send(deltaFrame);
+            }
+            connection.flushFromTick();
+        }
+    }
+
+    private void encode(ByteBuffer frame, boolean keyframe) {
+        frame.clear();
+        frame.position(Protocol.FRAME_HEADER_SIZE);
+        writer.begin(frame);
+        if (keyframe) {
+            current.writeKeyframe(writer);
+        } else {
+            current.writeDelta(writer, previous);
+        }
+        writer.end();
+        frame.putShort(0, (short) (frame.position() - Protocol.FRAME_HEADER_SIZE));
+        frame.flip();
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public Game getGame() {
+        return game;
+    }
+
+    public ScheduledSession getSchedule() {
+        return schedule;
+    }
+
+    public void setSchedule(ScheduledSession schedule) {
+        this.schedule = schedule;
+    }
+
+    public synchronized boolean isEmpty() {
+        return connections.isEmpty();
+    }
+}
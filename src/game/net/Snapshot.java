@@ -0,0 +1,293 @@
+package game.net;
+
+import game.Game;
+import game.GameMap;
+import game.objects.creatures.Player;
+import game.objects.creatures.enemy.Enemy;
+import game.objects.tiles.Dot;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+public class Snapshot {
+    public static final int MAX_PLAYERS = 7;
+
+    // Positions are quantized to 1/256 of a tile, well below what a tile size of 40 pixels can show.
+    private static final int SCALE = 256;
+    private static final int PLAYER_COUNT_BITS = 3;
+    private static final int TICK_BITS = 32;
+    // More eaten dots than players in one tick only happens on a reset, which is cheaper as a keyframe.
+    private static final int MAX_EATEN_PER_DELTA = MAX_PLAYERS;
+    // The receiving player's slot sits at a fixed bit of every keyframe, so a keyframe is encoded once
+    // and addressed to each connection by patching it with writeSlot.
+    private static final int SLOT_BIT = 1 + TICK_BITS + PLAYER_COUNT_BITS;
+
+    private final int width;
+    private final int height;
+    private final int enemyCount;
+
+    private final int positionBitsX;
+    private final int positionBitsY;
+    private final int targetBitsX;
+    private final int targetBitsY;
+    private final int cellBits;
+
+    private int tick;
+    private int playerCount;
+    private int slot;
+    private final int[] x;
+    private final int[] y;
+    private final int[] targetX;
+    private final int[] targetY;
+    private final boolean[] dots;
+
+    public Snapshot(Game game) {
+        GameMap map = game.getMap();
+        width = map.getWidth();
+        height = map.getHeight();
+        enemyCount = game.getEnemies().length;
+
+        positionBitsX = bitsFor(width * SCALE);
+        positionBitsY = bitsFor(height * SCALE);
+        targetBitsX = bitsFor(width);
+        targetBitsY = bitsFor(height);
+        cellBits = bitsFor(width * height);
+
+        x = new int[MAX_PLAYERS + enemyCount];
+        y = new int[MAX_PLAYERS + enemyCount];
+        targetX = new int[enemyCount];
+        targetY = new int[enemyCount];
+        dots = new boolean[width * height];
+    }
+
+    private static int bitsFor(int maxValue) {
+        return 32 - Integer.numberOfLeadingZeros(maxValue);
+    }
+
+    private static int quantize(double value) {
+        return (int) Math.round(value * SCALE);
+    }
+
+    public void capture(Game game, int tick) {
+        this.tick = tick;
+
+        List<Player> players = game.getPlayers();
+        playerCount = Math.min(players.size(), MAX_PLAYERS);
+        for (int i = 0; i < playerCount; i++) {
+            Player player = players.get(i);
+            x[i] = quantize(player.getCenterX());
+            y[i] = quantize(player.getCenterY());
+        }
+
+        Enemy[] enemies = game.getEnemies();
+        for (int i = 0; i < enemyCount; i++) {
+            x[MAX_PLAYERS + i] = quantize(enemies[i].getCenterX());
+            y[MAX_PLAYERS + i] = quantize(enemies[i].getCenterY());
+            targetX[i] = enemies[i].getTargetX();
+            targetY[i] = enemies[i].getTargetY();
+        }
+
+        GameMap map = game.getMap();
+        for (int cy = 0; cy < height; cy++) {
+            for (int cx = 0; cx < width; cx++) {
+                dots[cy * width + cx] = map.getTile(cx, cy) instanceof Dot;
+            }
+        }
+    }
+
+    public void copyFrom(Snapshot other) {
+        tick = other.tick;
+        playerCount = other.playerCount;
+        slot = other.slot;
+        System.arraycopy(other.x, 0, x, 0, x.length);
+        System.arraycopy(other.y, 0, y, 0, y.length);
+        System.arraycopy(other.targetX, 0, targetX, 0, targetX.length);
+        System.arraycopy(other.targetY, 0, targetY, 0, targetY.length);
+        System.arraycopy(other.dots, 0, dots, 0, dots.length);
+    }
+
+    public boolean canDeltaFrom(Snapshot previous) {
+        if (playerCount != previous.playerCount) {
+            return false;
+        }
+        int eaten = 0;
+        for (int i = 0; i < dots.length; i++) {
+            if (dots[i] && !previous.dots[i]) {
+                return false;
+            }
+            if (previous.dots[i] && !dots[i]) {
+                eaten++;
+            }
+        }
+        return eaten <= MAX_EATEN_PER_DELTA;
+    }
+
+    public int maxFrameSize() {
+        int creatureBits = (MAX_PLAYERS + enemyCount) * (positionBitsX + positionBitsY);
+        int targetBits = enemyCount * (targetBitsX + targetBitsY);
+        int headerBits = 1 + TICK_BITS + PLAYER_COUNT_BITS;
+
+        int keyframeBits = headerBits + PLAYER_COUNT_BITS + creatureBits + targetBits + dots.length;
+        int deltaBits = headerBits + MAX_PLAYERS + enemyCount + creatureBits + enemyCount + targetBits + cellBits * (1 + MAX_EATEN_PER_DELTA);
+        return Protocol.FRAME_HEADER_SIZE + (Math.max(keyframeBits, deltaBits) + 7) / 8;
+    }
+
+    private boolean isCreature(int i) {
+        return i < playerCount || i >= MAX_PLAYERS;
+    }
+
+    public void writeKeyframe(BitWriter writer) {
+        writer.writeBoolean(true);
+        writer.write(tick, TICK_BITS);
+        writer.write(playerCount, PLAYER_COUNT_BITS);
+        writer.write(0, PLAYER_COUNT_BITS);
+
+        for (int i = 0; i < x.length; i++) {
+            if (isCreature(i)) {
+                writer.write(x[i], positionBitsX);
+                writer.write(y[i], positionBitsY);
+            }
+        }
+        for (int i = 0; i < enemyCount; i++) {
+            writer.write(targetX[i], targetBitsX);
+            writer.write(targetY[i], targetBitsY);
+        }
+        for (boolean dot : dots) {
+            writer.writeBoolean(dot);
+        }
+    }
+
+    public static void writeSlot(ByteBuffer keyframe, int slot) {
+        int index = Protocol.FRAME_HEADER_SIZE + SLOT_BIT / 8;
+        int shift = SLOT_BIT % 8;
+        int mask = ((1 << PLAYER_COUNT_BITS) - 1) << shift;
+        keyframe.put(index, (byte) (keyframe.get(index) & ~mask | slot << shift & mask));
+    }
+
+    public void writeDelta(BitWriter writer, Snapshot previous) {
+        writer.writeBoolean(false);
+        writer.write(tick, TICK_BITS);
+        writer.write(playerCount, PLAYER_COUNT_BITS);
+
+        for (int i = 0; i < x.length; i++) {
+            if (isCreature(i)) {
+                boolean moved = x[i] != previous.x[i] || y[i] != previous.y[i];
+                writer.writeBoolean(moved);
+                if (moved) {
+                    writer.write(x[i], positionBitsX);
+                    writer.write(y[i], positionBitsY);
+                }
+            }
+        }
+        for (int i = 0; i < enemyCount; i++) {
+            boolean retargeted = targetX[i] != previous.targetX[i] || targetY[i] != previous.targetY[i];
+            writer.writeBoolean(retargeted);
+            if (retargeted) {
+                writer.write(targetX[i], targetBitsX);
+                writer.write(targetY[i], targetBitsY);
+            }
+        }
+
+        int eaten = 0;
+        for (int i = 0; i < dots.length; i++) {
+            if (previous.dots[i] && !dots[i]) {
+                eaten++;
+            }
+        }
+        writer.write(eaten, cellBits);
+        for (int i = 0; i < dots.length; i++) {
+            if (previous.dots[i] && !dots[i]) {
+                writer.write(i, cellBits);
+            }
+        }
+    }
+
+    public boolean read(BitReader reader) {
+        boolean keyframe = reader.readBoolean();
+        tick = reader.read(TICK_BITS);
+        playerCount = reader.read(PLAYER_COUNT_BITS);
+        if (keyframe) {
+            slot = reader.read(PLAYER_COUNT_BITS);
+        }
+
+        for (int i = 0; i < x.length; i++) {
+            if (isCreature(i) && (keyframe || reader.readBoolean())) {
+                x[i] = reader.read(positionBitsX);
+                y[i] = reader.read(positionBitsY);
+            }
+        }
+        for (int i = 0; i < enemyCount; i++) {
+            if (keyframe || reader.readBoolean()) {
+                targetX[i] = reader.read(targetBitsX);
+                targetY[i] = reader.read(targetBitsY);
+            }
+        }
+
+        if (keyframe) {
+            for (int i = 0; i < dots.length; i++) {
+                dots[i] = reader.readBoolean();
+            }
+        } else {
+            int eaten = reader.read(cellBits);
+            for (int i = 0; i < eaten; i++) {
+                dots[reader.read(cellBits)] = false;
+            }
+        }
+        return keyframe;
+    }
+
+    private static double interpolate(int start, int end, double alpha) {
+        // Anything further than a tile in one snapshot is a teleport (reset), not movement.
+        if (Math.abs(end - start) > SCALE) {
+            return (double) end / SCALE;
+        }
+        return (start + (end - start) * alpha) / SCALE;
+    }
+
+    public void applyTo(Game game, Snapshot from, double alpha) {
+        List<Player> players = game.getPlayers();
+        while (players.size() > playerCount) {
+            game.removePlayer(players.get(players.size() - 1));
+        }
+        while (players.size() < playerCount) {
+            game.addPlayer();
+        }
+
+        for (int i = 0; i < playerCount; i++) {
+            int startX = from.isCreature(i) ? from.x[i] : x[i];
+            int startY = from.isCreature(i) ? from.y[i] : y[i];
+            players.get(i).setCenter(interpolate(startX, x[i], alpha), interpolate(startY, y[i], alpha));
+        }
+
+        Enemy[] enemies = game.getEnemies();
+        for (int i = 0; i < enemyCount; i++) {
+            int j = MAX_PLAYERS + i;
+            enemies[i].setCenter(interpolate(from.x[j], x[j], alpha), interpolate(from.y[j], y[j], alpha));
+            enemies[i].setTarget(targetX[i], targetY[i]);
+        }
+
+        GameMap map = game.getMap();
+        for (int cy = 0; cy < height; cy++) {
+            for (int cx = 0; cx < width; cx++) {
+                boolean dot = map.getTile(cx, cy) instanceof Dot;
+                if (dots[cy * width + cx] && !dot) {
+                    map.setTile(cx, cy, new Dot(cx, cy));
+                } else if (!dots[cy * width + cx] && dot) {
+                    map.removeDot(cx, cy);
+                }
+            }
+        }
+    }
+
+    public int getTick() {
+        return tick;
+    }
+
+    public int getPlayerCount() {
+        return playerCount;
+    }
+
+    public int getSlot() {
+        return slot;
+    }
+}
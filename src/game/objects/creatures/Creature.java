@@ -23,6 +23,8 @@ public abstract class Creature extends GameObject {
     private final double initialX;
     private final double initialY;
 
+    private final Ellipse2D.Double eye;
+
     public Creature(Game game, double centerX, double centerY, double radius, double speed, Color color) {
         this.game = game;
         this.centerX = centerX;
@@ -33,6 +35,8 @@ public abstract class Creature extends GameObject {
 
         initialX = centerX;
         initialY = centerY;
+
+        eye = new Ellipse2D.Double();
     }
 
 
@@ -118,8 +122,10 @@ public abstract class Creature extends GameObject {
         double rightEyeCenterX = centerXOnScreen + radiusOnScreen / 2.0;
 
         g.setColor(Color.WHITE);
-        g.fill(new Ellipse2D.Double(leftEyeCenterX - eyeRad, eyeCenterY - eyeRad, eyeRad * 2.0, eyeRad * 2.0));
-        g.fill(new Ellipse2D.Double(rightEyeCenterX - eyeRad, eyeCenterY - eyeRad, eyeRad * 2.0, eyeRad * 2.0));
+        eye.setFrame(leftEyeCenterX - eyeRad, eyeCenterY - eyeRad, eyeRad * 2.0, eyeRad * 2.0);
+        g.fill(eye);
+        eye.setFrame(rightEyeCenterX - eyeRad, eyeCenterY - eyeRad, eyeRad * 2.0, eyeRad * 2.0);
+        g.fill(eye);
 
         double dx = aimX - centerX;
         double dy = aimY - centerY;
@@ -132,8 +138,15 @@ public abstract class Creature extends GameObject {
         double pupilY = eyeCenterY - eyeRad / 2.0 + dy * 0.4 * eyeRad;
 
         g.setColor(Color.BLACK);
-        g.fill(new Ellipse2D.Double(leftEyeCenterX + dx * 0.4 * eyeRad - eyeRad / 2.0, pupilY, eyeRad, eyeRad));
-        g.fill(new Ellipse2D.Double(rightEyeCenterX + dx * 0.4 * eyeRad - eyeRad / 2.0, pupilY, eyeRad, eyeRad));
+        eye.setFrame(leftEyeCenterX + dx * 0.4 * eyeRad - eyeRad / 2.0, pupilY, eyeRad, eyeRad);
+        g.fill(eye);
+        eye.setFrame(rightEyeCenterX + dx * 0.4 * eyeRad - eyeRad / 2.0, pupilY, eyeRad, eyeRad);
+        g.fill(eye);
+    }
+
+    public void setCenter(double centerX, double centerY) {
+        this.centerX = centerX;
+        this.centerY = centerY;
     }
 
     public double getCenterX() {
@@ -148,6 +161,14 @@ public abstract class Creature extends GameObject {
         return radius;
     }
 
+    public int getPreferredDirectionX() {
+        return preferredDirectionX;
+    }
+
+    public int getPreferredDirectionY() {
+        return preferredDirectionY;
+    }
+
     public int getMovingDirectionX() {
         return movingDirectionX;
     }
@@ -155,4 +176,8 @@ public abstract class Creature extends GameObject {
     public int getMovingDirectionY() {
         return movingDirectionY;
     }
+
+    public void setColor(Color color) {
+        this.color = color;
+    }
 }
\ No newline at end of file
@@ -1,8 +1,10 @@
 package game.objects.creatures;
 
 import game.Game;
+import game.input.InputBuffer;
+import game.input.LatencyTracker;
+import game.input.TurnBuffer;
 import game.objects.creatures.enemy.Enemy;
-import game.objects.tiles.Air;
 import game.objects.tiles.Dot;
 
 import java.awt.*;
@@ -11,8 +13,33 @@ import java.awt.event.KeyListener;
 import java.awt.geom.Ellipse2D;
 
 public class Player extends Creature implements KeyListener {
+    private final InputBuffer input;
+    private final TurnBuffer turns;
+    private LatencyTracker latencyTracker;
+    private int eatenDotIndex;
+    private final Ellipse2D.Double body;
+
     public Player(Game game, double centerX, double centerY, double radius, double speed) {
         super(game, centerX, centerY, radius, speed, Color.YELLOW);
+        input = new InputBuffer();
+        turns = new TurnBuffer();
+        eatenDotIndex = -1;
+        body = new Ellipse2D.Double();
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        input.clear();
+        turns.clear();
+    }
+
+    private void tickInput() {
+        long tick = game.getTickCount();
+        input.drainTo(turns, tick);
+        turns.update(game.getMap(), (int) centerX, (int) centerY, movingDirectionX, movingDirectionY, tick);
+        preferredDirectionX = turns.getDirectionX();
+        preferredDirectionY = turns.getDirectionY();
     }
 
     private void tickDotCollision() {
@@ -25,7 +52,8 @@ public class Player extends Creature implements KeyListener {
             double r = dot.getRadius() + radius;
 
             if (dx * dx + dy * dy < r * r) {
-                game.getMap().setTile(x, y, new Air(x, y));
+                game.getMap().removeDot(x, y);
+                eatenDotIndex = y * game.getMap().getWidth() + x;
                 if (game.getMap().dotCount() == 0) {
                     game.win();
                 }
@@ -42,7 +70,12 @@ public class Player extends Creature implements KeyListener {
 
     @Override
     public void tick() {
+        eatenDotIndex = -1;
+        tickInput();
+        int previousDirectionX = movingDirectionX;
+        int previousDirectionY = movingDirectionY;
         super.tick();
+        turns.moved(previousDirectionX, previousDirectionY, movingDirectionX, movingDirectionY, game.getTickCount(), latencyTracker);
         tickDotCollision();
     }
 
@@ -54,7 +87,8 @@ public class Player extends Creature implements KeyListener {
         double diameterOnScreen = radiusOnScreen * 2.0;
 
         g.setColor(color);
-        g.fill(new Ellipse2D.Double(centerXOnScreen - radiusOnScreen, centerYOnScreen - radiusOnScreen, diameterOnScreen, diameterOnScreen));
+        body.setFrame(centerXOnScreen - radiusOnScreen, centerYOnScreen - radiusOnScreen, diameterOnScreen, diameterOnScreen);
+        g.fill(body);
 
         // Eyes
         Enemy closestEnemy = null;
@@ -71,6 +105,18 @@ public class Player extends Creature implements KeyListener {
         renderEyes(g, centerXOnScreen, centerYOnScreen, radiusOnScreen, closestEnemy.centerX, closestEnemy.centerY);
     }
 
+    public void pushInput(int directionX, int directionY, long pressNanos) {
+        input.push(directionX, directionY, pressNanos);
+    }
+
+    public int getEatenDotIndex() {
+        return eatenDotIndex;
+    }
+
+    public void setLatencyTracker(LatencyTracker latencyTracker) {
+        this.latencyTracker = latencyTracker;
+    }
+
     @Override
     public void keyTyped(KeyEvent e) {
         // ignore
@@ -79,22 +125,10 @@ public class Player extends Creature implements KeyListener {
     @Override
     public void keyPressed(KeyEvent e) {
         switch (e.getKeyCode()) {
-            case KeyEvent.VK_W -> {
-                preferredDirectionX = 0;
-                preferredDirectionY = -1;
-            }
-            case KeyEvent.VK_A -> {
-                preferredDirectionX = -1;
-                preferredDirectionY = 0;
-            }
-            case KeyEvent.VK_S -> {
-                preferredDirectionX = 0;
-                preferredDirectionY = 1;
-            }
-            case KeyEvent.VK_D -> {
-                preferredDirectionX = 1;
-                preferredDirectionY = 0;
-            }
+            case KeyEvent.VK_W -> pushInput(0, -1, System.nanoTime());
+            case KeyEvent.VK_A -> pushInput(-1, 0, System.nanoTime());
+            case KeyEvent.VK_S -> pushInput(0, 1, System.nanoTime());
+            case KeyEvent.VK_D -> pushInput(1, 0, System.nanoTime());
         }
     }
 
@@ -0,0 +1,18 @@
+package game.objects.creatures.enemy;
+
+import game.GameMap;
+import game.objects.creatures.Player;
+
+import java.util.Random;
+
+public class ChasingPolicy implements TargetPolicy {
+    @Override
+    public int getInputs() {
+        return PLAYER_CELL;
+    }
+
+    @Override
+    public int chooseTarget(GameMap map, Player player, int enemyCell, int target, Random random) {
+        return (int) player.getCenterY() * map.getWidth() + (int) player.getCenterX();
+    }
+}
@@ -0,0 +1,32 @@
+package game.objects.creatures.enemy;
+
+import game.GameMap;
+import game.objects.creatures.Player;
+
+import java.util.Random;
+
+public class CuttingPolicy implements TargetPolicy {
+    @Override
+    public int getInputs() {
+        return PLAYER_CELL | PLAYER_DIRECTION;
+    }
+
+    @Override
+    public int chooseTarget(GameMap map, Player player, int enemyCell, int target, Random random) {
+        int targetX = (int) player.getCenterX();
+        int targetY = (int) player.getCenterY();
+        int vx = player.getMovingDirectionX();
+        int vy = player.getMovingDirectionY();
+
+        if (vx != 0) {
+            while (map.isFree(targetX + vx, targetY)) {
+                targetX += vx;
+            }
+        } else if (vy != 0) {
+            while (map.isFree(targetX, targetY + vy)) {
+                targetY += vy;
+            }
+        }
+        return targetY * map.getWidth() + targetX;
+    }
+}
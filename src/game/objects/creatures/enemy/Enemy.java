@@ -1,74 +1,70 @@
 package game.objects.creatures.enemy;
 
 import game.Game;
+import game.GameMap;
 import game.objects.creatures.Creature;
 import game.objects.creatures.Player;
 
 import java.awt.*;
 import java.awt.geom.Rectangle2D;
-import java.util.HashSet;
-import java.util.PriorityQueue;
-import java.util.Queue;
-import java.util.Set;
+import java.util.List;
+import java.util.Random;
 
-public abstract class Enemy extends Creature {
-    protected Player player;
+public class Enemy extends Creature {
+    private final TargetingEngine targeting;
 
-    protected int targetX;
-    protected int targetY;
+    private int targetX;
+    private int targetY;
 
-    public Enemy(Game game, Player player, double centerX, double centerY, double radius, double speed, Color color) {
+    private final Rectangle2D.Double body;
+
+    public Enemy(Game game, double centerX, double centerY, double radius, double speed, Color color, TargetPolicy policy, Random random) {
         super(game, centerX, centerY, radius, speed, color);
-        this.player = player;
+        targeting = new TargetingEngine(policy, random);
         targetX = (int) centerX;
         targetY = (int) centerY;
+        body = new Rectangle2D.Double();
     }
 
-    private Node shortestDirectionTo(int goalX, int goalY) {
-        Node startNode = new Node((int) centerX, (int) centerY, null, 0, goalX, goalY);
-
-        Queue<Node> queue = new PriorityQueue<>(Node::compareTo);
-        queue.add(startNode);
-
-        Set<Node> visited = new HashSet<>();
-
-        Node currentNode;
-        while ((currentNode = queue.poll()) != null) {
-            if (visited.contains(currentNode)) {
-                continue;
-            }
-
-            if (currentNode.getX() == goalX && currentNode.getY() == goalY) {
-                return currentNode.initialDirection();
-            }
-
-            visited.add(currentNode);
-            queue.addAll(currentNode.neighbors(game.getMap(), goalX, goalY));
-        }
-
-        return null;
+    @Override
+    public void reset() {
+        super.reset();
+        targeting.invalidate();
     }
 
-    protected abstract void tickTarget();
-
     @Override
     public void tickPreferredDirection() {
-        tickTarget();
+        Player player = game.closestPlayer(centerX, centerY);
+        if (player == null) {
+            return;
+        }
 
-        Node aim = shortestDirectionTo(targetX, targetY);
-        if (aim != null) {
-            preferredDirectionX = Integer.signum(aim.getX() - (int) centerX);
-            preferredDirectionY = Integer.signum(aim.getY() - (int) centerY);
+        GameMap map = game.getMap();
+        int width = map.getWidth();
+        int cell = (int) centerY * width + (int) centerX;
+
+        int target = targeting.chooseTarget(map, player, cell, targetY * width + targetX);
+        targetX = target % width;
+        targetY = target / width;
+
+        int aim = targeting.firstStep(map, game.getPathFinder(), cell, target);
+        if (aim >= 0) {
+            preferredDirectionX = Integer.signum(aim % width - (int) centerX);
+            preferredDirectionY = Integer.signum(aim / width - (int) centerY);
         }
     }
 
     private void tickPlayerCollision() {
-        double dx = player.getCenterX() - centerX;
-        double dy = player.getCenterY() - centerY;
-        double r = player.getRadius() + radius;
-
-        if (dx * dx + dy * dy < r * r) {
-            game.lose();
+        List<Player> players = game.getPlayers();
+        for (int i = 0; i < players.size(); i++) {
+            Player other = players.get(i);
+            double dx = other.getCenterX() - centerX;
+            double dy = other.getCenterY() - centerY;
+            double r = other.getRadius() + radius;
+
+            if (dx * dx + dy * dy < r * r) {
+                game.lose();
+            }
         }
     }
 
@@ -86,8 +82,26 @@ public abstract class Enemy extends Creature {
         double sizeOnScreen = radiusOnScreen * 2.0;
 
         g.setColor(color);
-        g.fill(new Rectangle2D.Double(centerXOnScreen - radiusOnScreen, centerYOnScreen - radiusOnScreen, sizeOnScreen, sizeOnScreen));
+        body.setRect(centerXOnScreen - radiusOnScreen, centerYOnScreen - radiusOnScreen, sizeOnScreen, sizeOnScreen);
+        g.fill(body);
 
         renderEyes(g, centerXOnScreen, centerYOnScreen, radiusOnScreen, targetX + 0.5, targetY + 0.5);
     }
+
+    public void setTarget(int targetX, int targetY) {
+        this.targetX = targetX;
+        this.targetY = targetY;
+    }
+
+    public int getTargetX() {
+        return targetX;
+    }
+
+    public int getTargetY() {
+        return targetY;
+    }
+
+    public TargetingEngine getTargeting() {
+        return targeting;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,149 @@
+package game.objects.creatures.enemy;
+
+import game.GameMap;
+
+// A* over the map's cells using preallocated arrays, so a search allocates nothing. The open list is
+// a binary heap that behaves exactly like java.util.PriorityQueue, and like the Node-based search it
+// replaces it allows duplicate entries and skips cells that were already closed, so enemies pick the
+// same paths as before.
+public class PathFinder {
+    private final int width;
+    private final int height;
+
+    private final int[] closedStamp;
+    private final int[] closedParent;
+    private int stamp;
+
+    private final int[] heapCell;
+    private final int[] heapParent;
+    private final int[] heapDistance;
+    private final int[] heapKey;
+    private int heapSize;
+
+    public PathFinder(GameMap map) {
+        width = map.getWidth();
+        height = map.getHeight();
+
+        closedStamp = new int[width * height];
+        closedParent = new int[width * height];
+
+        // Every cell is closed at most once and pushes at most four neighbors.
+        int capacity = width * height * 4 + 1;
+        heapCell = new int[capacity];
+        heapParent = new int[capacity];
+        heapDistance = new int[capacity];
+        heapKey = new int[capacity];
+    }
+
+    // Returns the cell of the first step from the start towards the goal, the start itself if it is
+    // the goal, or -1 if the goal cannot be reached.
+    public int firstStep(GameMap map, int startX, int startY, int goalX, int goalY) {
+        stamp++;
+        heapSize = 0;
+
+        int start = startY * width + startX;
+        push(start, -1, 0, goalX, goalY);
+
+        while (heapSize > 0) {
+            int cell = heapCell[0];
+            int parent = heapParent[0];
+            int distance = heapDistance[0];
+            pop();
+
+            if (closedStamp[cell] == stamp) {
+                continue;
+            }
+
+            int x = cell % width;
+            int y = cell / width;
+            closedStamp[cell] = stamp;
+            closedParent[cell] = parent;
+
+            if (x == goalX && y == goalY) {
+                return initialStep(cell, start);
+            }
+
+            if (map.isFree(x - 1, y)) {
+                push(cell - 1, cell, distance + 1, goalX, goalY);
+            }
+            if (map.isFree(x + 1, y)) {
+                push(cell + 1, cell, distance + 1, goalX, goalY);
+            }
+            if (map.isFree(x, y - 1)) {
+                push(cell - width, cell, distance + 1, goalX, goalY);
+            }
+            if (map.isFree(x, y + 1)) {
+                push(cell + width, cell, distance + 1, goalX, goalY);
+            }
+        }
+
+        return -1;
+    }
+
+    private int initialStep(int cell, int start) {
+        if (cell == start) {
+            return cell;
+        }
+        while (closedParent[cell] != start) {
+            cell = closedParent[cell];
+        }
+        return cell;
+    }
+
+    private void push(int cell, int parent, int distance, int goalX, int goalY) {
+        int key = distance + Math.abs(goalX - cell % width) + Math.abs(goalY - cell / width);
+
+        int k = heapSize++;
+        while (k > 0) {
+            int up = (k - 1) >>> 1;
+            if (key >= heapKey[up]) {
+                break;
+            }
+            move(up, k);
+            k = up;
+        }
+        set(k, cell, parent, distance, key);
+    }
+
+    private void pop() {
+        int n = --heapSize;
+        if (n == 0) {
+            return;
+        }
+
+        int cell = heapCell[n];
+        int parent = heapParent[n];
+        int distance = heapDistance[n];
+        int key = heapKey[n];
+
+        int k = 0;
+        int half = n >>> 1;
+        while (k < half) {
+            int child = (k << 1) + 1;
+            int right = child + 1;
+            if (right < n && heapKey[child] > heapKey[right]) {
+                child = right;
+            }
+            if (key <= heapKey[child]) {
+                break;
+            }
+            move(child, k);
+            k = child;
+        }
+        set(k, cell, parent, distance, key);
+    }
+
+    private void move(int from, int to) {
+        heapCell[to] = heapCell[from];
+        heapParent[to] = heapParent[from];
+        heapDistance[to] = heapDistance[from];
+        heapKey[to] = heapKey[from];
+    }
+
+    private void set(int k, int cell, int parent, int distance, int key) {
+        heapCell[k] = cell;
+        heapParent[k] = parent;
+        heapDistance[k] = distance;
+        heapKey[k] = key;
+    }
+}
@@ -0,0 +1,30 @@
+package game.objects.creatures.enemy;
+
+import game.GameMap;
+import game.objects.creatures.Player;
+
+import java.util.Random;
+
+public class RandomPolicy implements TargetPolicy {
+    @Override
+    public int getInputs() {
+        return ENEMY_CELL | RANDOM;
+    }
+
+    @Override
+    public int chooseTarget(GameMap map, Player player, int enemyCell, int target, Random random) {
+        if (enemyCell != target) {
+            return target;
+        }
+
+        // Roll until the cell is free, since we will not be asked again before the enemy moves.
+        int nextTargetX;
+        int nextTargetY;
+        do {
+            nextTargetX = random.nextInt(map.getWidth());
+            nextTargetY = random.nextInt(map.getHeight());
+        } while (!map.isFree(nextTargetX, nextTargetY));
+
+        return nextTargetY * map.getWidth() + nextTargetX;
+    }
+}
@@ -0,0 +1,21 @@
+package game.objects.creatures.enemy;
+
+import game.GameMap;
+import game.objects.creatures.Player;
+
+import java.util.Random;
+
+// Decides which cell an enemy heads for. Cells are numbered y * width + x, like in PathFinder.
+public interface TargetPolicy {
+    int PLAYER_CELL = 1;
+    int PLAYER_DIRECTION = 1 << 1;
+    int ENEMY_CELL = 1 << 2;
+    int RANDOM = 1 << 3;
+
+    // The inputs chooseTarget reads. It is only called again once one of them has changed, so a
+    // policy must not depend on anything it does not declare here. RANDOM only asks for the game's
+    // generator, it never causes a re-evaluation by itself.
+    int getInputs();
+
+    int chooseTarget(GameMap map, Player player, int enemyCell, int target, Random random);
+}
@@ -0,0 +1,94 @@
+package game.objects.creatures.enemy;
+
+import game.GameMap;
+import game.objects.creatures.Player;
+
+import java.util.Random;
+
+// Runs a TargetPolicy for one enemy and remembers its result. The policy is only asked again when
+// one of its declared inputs changed, and the path is only searched again when the enemy or its
+// target moved to another cell. Blocks never change, so a path found once stays valid.
+public class TargetingEngine {
+    private final TargetPolicy policy;
+    private final int inputs;
+    private final Random random;
+
+    private boolean evaluated;
+    private Player player;
+    private int playerCell;
+    private int playerDirection;
+    private int enemyCell;
+
+    private int pathStart;
+    private int pathGoal;
+    private int pathStep;
+
+    private long requestCount;
+    private long evaluationCount;
+    private long searchCount;
+
+    public TargetingEngine(TargetPolicy policy, Random random) {
+        this.policy = policy;
+        inputs = policy.getInputs();
+        this.random = (inputs & TargetPolicy.RANDOM) != 0 ? random : null;
+        invalidate();
+    }
+
+    public void invalidate() {
+        evaluated = false;
+        pathStart = -1;
+        pathGoal = -1;
+    }
+
+    public int chooseTarget(GameMap map, Player player, int enemyCell, int target) {
+        int width = map.getWidth();
+        int playerCell = (int) player.getCenterY() * width + (int) player.getCenterX();
+        int playerDirection = (player.getMovingDirectionY() + 1) * 3 + player.getMovingDirectionX() + 1;
+        requestCount++;
+
+        if (evaluated && !changed(player, playerCell, playerDirection, enemyCell)) {
+            return target;
+        }
+
+        evaluated = true;
+        this.player = player;
+        this.playerCell = playerCell;
+        this.playerDirection = playerDirection;
+        this.enemyCell = enemyCell;
+
+        evaluationCount++;
+        return policy.chooseTarget(map, player, enemyCell, target, random);
+    }
+
+    private boolean changed(Player player, int playerCell, int playerDirection, int enemyCell) {
+        if ((inputs & (TargetPolicy.PLAYER_CELL | TargetPolicy.PLAYER_DIRECTION)) != 0 && player != this.player) {
+            return true;
+        }
+        return (inputs & TargetPolicy.PLAYER_CELL) != 0 && playerCell != this.playerCell
+                || (inputs & TargetPolicy.PLAYER_DIRECTION) != 0 && playerDirection != this.playerDirection
+                || (inputs & TargetPolicy.ENEMY_CELL) != 0 && enemyCell != this.enemyCell;
+    }
+
+    public int firstStep(GameMap map, PathFinder pathFinder, int start, int goal) {
+        if (start != pathStart || goal != pathGoal) {
+            int width = map.getWidth();
+            pathStep = pathFinder.firstStep(map, start % width, start / width, goal % width, goal / width);
+            pathStart = start;
+            pathGoal = goal;
+            searchCount++;
+        }
+        return pathStep;
+    }
+
+    public long getRequestCount() {
+        return requestCount;
+    }
+
+    public long getEvaluationCount() {
+        return evaluationCount;
+    }
+
+    public long getSearchCount() {
+        return searchCount;
+    }
+}
@@ -5,6 +5,9 @@ import java.awt.geom.Ellipse2D;
 
 public class Dot extends Tile {
     protected final double radius;
+    // Dots are shared between maps, so the shape is never changed in place; a different tile size
+    // simply gets a new one.
+    private volatile Ellipse2D.Double shape;
 
     protected Dot(int x, int y, double radius) {
         super(x, y);
@@ -22,8 +25,14 @@ public class Dot extends Tile {
         double radiusOnScreen = radius * tileSize;
         double diameterOnScreen = radiusOnScreen * 2.0;
 
+        Ellipse2D.Double shape = this.shape;
+        if (shape == null || shape.x != centerXOnScreen - radiusOnScreen || shape.width != diameterOnScreen) {
+            shape = new Ellipse2D.Double(centerXOnScreen - radiusOnScreen, centerYOnScreen - radiusOnScreen, diameterOnScreen, diameterOnScreen);
+            this.shape = shape;
+        }
+
         g.setColor(Color.WHITE);
-        g.fill(new Ellipse2D.Double(centerXOnScreen - radiusOnScreen, centerYOnScreen - radiusOnScreen, diameterOnScreen, diameterOnScreen));
+        g.fill(shape);
     }
 
     public double getCenterX() {
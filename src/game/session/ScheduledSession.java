@@ -0,0 +1,88 @@
+package game.session;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class ScheduledSession implements Runnable {
+    private final SessionHost host;
+    private final Session session;
+    private final AtomicBoolean queued;
+
+    private volatile boolean closed;
+    private long deadline;
+
+    // Each counter has a single writer at a time (the worker running the tick, or the timer for
+    // skipped ticks); volatile lets the getters read them from any thread without tearing.
+    private volatile long ticks;
+    private volatile long missedDeadlines;
+    private volatile long skippedTicks;
+    private volatile long worstLatenessNanos;
+
+    ScheduledSession(SessionHost host, Session session) {
+        this.host = host;
+        this.session = session;
+        queued = new AtomicBoolean();
+    }
+
+    boolean dispatch(long deadline) {
+        if (!queued.compareAndSet(false, true)) {
+            // Still busy with the previous tick: drop this one rather than let work pile up.
+            skippedTicks++;
+            return false;
+        }
+        this.deadline = deadline;
+        return true;
+    }
+
+    @Override
+    public void run() {
+        try {
+            if (closed) {
+                return;
+            }
+
+            long start = System.nanoTime();
+            session.tick();
+            long end = System.nanoTime();
+
+            host.recordLateness(start - deadline);
+            ticks++;
+            if (end - deadline > host.getTickNanos()) {
+                missedDeadlines++;
+            }
+            worstLatenessNanos = Math.max(worstLatenessNanos, end - deadline);
+        } finally {
+            queued.set(false);
+        }
+    }
+
+    public void close() {
+        if (!closed) {
+            closed = true;
+            host.unschedule(this);
+        }
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    public Session getSession() {
+        return session;
+    }
+
+    public long getTicks() {
+        return ticks;
+    }
+
+    public long getMissedDeadlines() {
+        return missedDeadlines;
+    }
+
+    public long getSkippedTicks() {
+        return skippedTicks;
+    }
+
+    public long getWorstLatenessNanos() {
+        return worstLatenessNanos;
+    }
+}
@@ -0,0 +1,5 @@
+package game.session;
+
+public interface Session {
+    void tick();
+}
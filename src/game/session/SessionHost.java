@@ -0,0 +1,185 @@
+package game.session;
+
+import game.Game;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+public class SessionHost implements Closeable {
+    // Each tick period is split into this many slots so that sessions are spread over the period
+    // instead of all waking up at once.
+    private static final int SLOTS = 16;
+
+    private final long tickNanos;
+    private final long slotNanos;
+
+    private final List<List<ScheduledSession>> slots;
+    private final Queue<ScheduledSession> changes;
+    private final ExecutorService workers;
+    private final Thread timer;
+
+    private volatile boolean running;
+    private final AtomicInteger sessionCount;
+    private volatile long averageLatenessNanos;
+    private volatile long timerOverruns;
+
+    public SessionHost(int workerCount, long tickNanos) {
+        this.tickNanos = tickNanos;
+        slotNanos = tickNanos / SLOTS;
+
+        slots = new ArrayList<>(SLOTS);
+        for (int i = 0; i < SLOTS; i++) {
+            slots.add(new ArrayList<>());
+        }
+        changes = new ConcurrentLinkedQueue<>();
+        sessionCount = new AtomicInteger();
+
+        workers = new ThreadPoolExecutor(workerCount, workerCount, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "SessionHost-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        timer = new Thread(this::runTimer, "SessionHost-timer");
+        timer.setDaemon(true);
+
+        running = true;
+        timer.start();
+    }
+
+    public SessionHost(int workerCount) {
+        this(workerCount, Game.TICK_NANOS);
+    }
+
+    public SessionHost() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public ScheduledSession open(Session session) {
+        if (!running) {
+            throw new IllegalStateException("Session host is closed");
+        }
+        if (isBehind()) {
+            throw new IllegalStateException("Session host is behind schedule, not accepting new sessions");
+        }
+        ScheduledSession scheduled = new ScheduledSession(this, session);
+        changes.add(scheduled);
+        sessionCount.incrementAndGet();
+        return scheduled;
+    }
+
+    void unschedule(ScheduledSession scheduled) {
+        changes.add(scheduled);
+        sessionCount.decrementAndGet();
+    }
+
+    void recordLateness(long latenessNanos) {
+        // Racy on purpose: this is a smoothed load signal, an occasional lost sample does not matter.
+        averageLatenessNanos += (latenessNanos - averageLatenessNanos) / 16L;
+    }
+
+    public boolean isBehind() {
+        return averageLatenessNanos > tickNanos / 2L;
+    }
+
+    private void applyChanges() {
+        ScheduledSession scheduled;
+        while ((scheduled = changes.poll()) != null) {
+            if (scheduled.isClosed()) {
+                for (List<ScheduledSession> slot : slots) {
+                    if (slot.remove(scheduled)) {
+                        break;
+                    }
+                }
+            } else {
+                List<ScheduledSession> emptiest = slots.get(0);
+                for (List<ScheduledSession> slot : slots) {
+                    if (slot.size() < emptiest.size()) {
+                        emptiest = slot;
+                    }
+                }
+                emptiest.add(scheduled);
+            }
+        }
+    }
+
+    private void runTimer() {
+        long next = System.nanoTime();
+        int slotIndex = 0;
+
+        while (running) {
+            applyChanges();
+            if (sessionCount.get() == 0) {
+                // Lateness is only sampled by running ticks, so with nothing left to tick the last
+                // average would otherwise keep refusing new sessions forever.
+                averageLatenessNanos = 0L;
+            }
+
+            List<ScheduledSession> slot = slots.get(slotIndex);
+            for (int i = 0; i < slot.size(); i++) {
+                ScheduledSession scheduled = slot.get(i);
+                if (scheduled.dispatch(next)) {
+                    workers.execute(scheduled);
+                }
+            }
+
+            slotIndex = (slotIndex + 1) % SLOTS;
+            next += slotNanos;
+
+            long wait;
+            while ((wait = next - System.nanoTime()) > 0L && running) {
+                LockSupport.parkNanos(wait);
+            }
+            if (-wait > tickNanos) {
+                // A whole period behind: start over from now instead of firing a burst of catch-up ticks.
+                timerOverruns++;
+                next = System.nanoTime();
+            }
+        }
+    }
+
+    public long getTickNanos() {
+        return tickNanos;
+    }
+
+    public int getSessionCount() {
+        return sessionCount.get();
+    }
+
+    public long getAverageLatenessNanos() {
+        return averageLatenessNanos;
+    }
+
+    public long getTimerOverruns() {
+        return timerOverruns;
+    }
+
+    // Whether every tick has finished since close, so nothing the sessions use is still being touched.
+    public boolean isTerminated() {
+        return workers.isTerminated();
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(timer);
+        try {
+            timer.join();
+            // Nothing new is dispatched once the timer is gone; let ticks already running finish so
+            // callers can clean up what the sessions use.
+            workers.shutdown();
+            workers.awaitTermination(1L, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            workers.shutdown();
+        }
+    }
+}
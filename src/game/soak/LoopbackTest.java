@@ -0,0 +1,145 @@
+package game.soak;
+
+import game.Game;
+import game.net.GameClient;
+import game.net.GameServer;
+import game.session.SessionHost;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.Random;
+
+// Runs a server and its clients over loopback and checks the snapshot traffic each player receives,
+// that every client controls its own player, and that rooms are torn down once everyone has left.
+// Usage: LoopbackTest [--rooms N] [--clients perRoom] [--seconds N] [--budget bytesPerPlayerPerTick] [--seed N]
+public class LoopbackTest {
+    private static final long TEARDOWN_TIMEOUT_MILLIS = 2_000L;
+
+    private final SessionHost host;
+    private final GameServer server;
+    private final GameClient[] clients;
+    private final int clientsPerRoom;
+
+    public LoopbackTest(int rooms, int clientsPerRoom) throws IOException {
+        this.clientsPerRoom = clientsPerRoom;
+        host = new SessionHost();
+        server = new GameServer(new InetSocketAddress("localhost", 0), host);
+        new Thread(server, "GameServer").start();
+
+        clients = new GameClient[rooms * clientsPerRoom];
+        for (int i = 0; i < clients.length; i++) {
+            clients[i] = new GameClient(new InetSocketAddress("localhost", server.getPort()));
+            clients[i].join(i / clientsPerRoom);
+            Thread thread = new Thread(clients[i], "GameClient-" + i);
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    private void play(long seconds, Random random) throws IOException, InterruptedException {
+        long end = System.nanoTime() + seconds * 1_000_000_000L;
+        while (System.nanoTime() < end) {
+            GameClient client = clients[random.nextInt(clients.length)];
+            switch (random.nextInt(4)) {
+                case 0 -> client.sendInput(0, -1);
+                case 1 -> client.sendInput(-1, 0);
+                case 2 -> client.sendInput(0, 1);
+                default -> client.sendInput(1, 0);
+            }
+            Thread.sleep(Game.TICK_NANOS * 10L / 1_000_000L / clients.length + 1L);
+        }
+    }
+
+    private boolean checkSlots() {
+        boolean ok = true;
+        for (int room = 0; room < clients.length / clientsPerRoom; room++) {
+            boolean[] taken = new boolean[clientsPerRoom];
+            for (int i = 0; i < clientsPerRoom; i++) {
+                int slot = clients[room * clientsPerRoom + i].getSlot();
+                if (slot < 0 || slot >= clientsPerRoom || taken[slot]) {
+                    System.out.println("Room " + room + ": client " + i + " was told slot " + slot);
+                    ok = false;
+                } else {
+                    taken[slot] = true;
+                }
+            }
+        }
+        return ok;
+    }
+
+    private boolean checkTraffic(double budget) {
+        long bytes = 0;
+        long snapshots = 0;
+        int unsynced = 0;
+        for (GameClient client : clients) {
+            bytes += client.getBytesReceived();
+            snapshots += client.getSnapshotsReceived();
+            if (!client.isSynced()) {
+                unsynced++;
+            }
+        }
+        // Every client receives one snapshot per tick, so this is the bytes per player per tick.
+        double bytesPerSnapshot = snapshots > 0 ? (double) bytes / snapshots : Double.NaN;
+        System.out.printf("clients=%d snapshots=%d bytes=%d %.1f B/player/tick%n", clients.length, snapshots, bytes, bytesPerSnapshot);
+
+        if (unsynced > 0) {
+            System.out.println(unsynced + " client(s) never received a keyframe");
+        }
+        if (!(bytesPerSnapshot <= budget)) {
+            System.out.println("Snapshot traffic exceeded the budget of " + budget + " B/player/tick");
+        }
+        return unsynced == 0 && bytesPerSnapshot <= budget;
+    }
+
+    private boolean checkTeardown() throws IOException, InterruptedException {
+        for (GameClient client : clients) {
+            client.close();
+        }
+        long deadline = System.currentTimeMillis() + TEARDOWN_TIMEOUT_MILLIS;
+        while ((server.getRoomCount() > 0 || host.getSessionCount() > 0) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10L);
+        }
+        System.out.println("After disconnecting: rooms=" + server.getRoomCount() + " sessions=" + host.getSessionCount());
+        return server.getRoomCount() == 0 && host.getSessionCount() == 0;
+    }
+
+    private void close() {
+        server.close();
+        host.close();
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int rooms = 1;
+        int clientsPerRoom = 4;
+        long seconds = 5L;
+        double budget = 64.0;
+        long seed = 1L;
+
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--rooms" -> rooms = Integer.parseInt(args[i + 1]);
+                case "--clients" -> clientsPerRoom = Integer.parseInt(args[i + 1]);
+                case "--seconds" -> seconds = Long.parseLong(args[i + 1]);
+                case "--budget" -> budget = Double.parseDouble(args[i + 1]);
+                case "--seed" -> seed = Long.parseLong(args[i + 1]);
+                default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+
+        LoopbackTest test = new LoopbackTest(rooms, clientsPerRoom);
+        boolean ok;
+        try {
+            test.play(seconds, new Random(seed));
+            ok = test.checkSlots();
+            ok &= test.checkTraffic(budget);
+            ok &= test.checkTeardown();
+        } finally {
+            test.close();
+        }
+
+        if (!ok) {
+            System.exit(1);
+        }
+        System.out.println("Loopback check passed");
+    }
+}
@@ -0,0 +1,151 @@
+package game.soak;
+
+import game.Game;
+import game.objects.creatures.Player;
+import game.objects.creatures.enemy.Enemy;
+import game.objects.creatures.enemy.TargetingEngine;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Random;
+
+// Runs a headless game for a long time and checks that the tick path stays allocation-free.
+// Usage: SoakTest [--ticks N] [--window N] [--warmup N] [--budget bytesPerTick] [--seed N]
+public class SoakTest {
+    private static final int INPUT_INTERVAL = 40;
+    private static final long WARMUP_CHUNK = 10_000L;
+
+    private final com.sun.management.ThreadMXBean threads;
+    private final List<GarbageCollectorMXBean> collectors;
+
+    private final Game game;
+    private final Player player;
+    private final Random random;
+
+    private long baselineTickNanos;
+
+    public SoakTest(long seed) {
+        threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        threads.setThreadAllocatedMemoryEnabled(true);
+        collectors = ManagementFactory.getGarbageCollectorMXBeans();
+
+        random = new Random(seed);
+        game = new Game(new Random(random.nextLong()));
+        player = game.addPlayer();
+    }
+
+    private void run(long ticks) {
+        for (long i = 0; i < ticks; i++) {
+            if (i % INPUT_INTERVAL == 0) {
+                switch (random.nextInt(4)) {
+                    case 0 -> player.pushInput(0, -1, System.nanoTime());
+                    case 1 -> player.pushInput(-1, 0, System.nanoTime());
+                    case 2 -> player.pushInput(0, 1, System.nanoTime());
+                    default -> player.pushInput(1, 0, System.nanoTime());
+                }
+            }
+            game.tick();
+        }
+    }
+
+    private long gcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean collector : collectors) {
+            count += Math.max(0, collector.getCollectionCount());
+        }
+        return count;
+    }
+
+    // Replan requests, policy evaluations and path searches summed over all enemies.
+    private long[] targetingCounts() {
+        long[] counts = new long[3];
+        for (Enemy enemy : game.getEnemies()) {
+            TargetingEngine targeting = enemy.getTargeting();
+            counts[0] += targeting.getRequestCount();
+            counts[1] += targeting.getEvaluationCount();
+            counts[2] += targeting.getSearchCount();
+        }
+        return counts;
+    }
+
+    private long gcMillis() {
+        long millis = 0;
+        for (GarbageCollectorMXBean collector : collectors) {
+            millis += Math.max(0, collector.getCollectionTime());
+        }
+        return millis;
+    }
+
+    // Returns whether the window stayed within the allocation budget.
+    private boolean window(long ticksDone, long ticks, double budget) {
+        long[] targeting = targetingCounts();
+        long gcCount = gcCount();
+        long gcMillis = gcMillis();
+        long allocated = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+
+        run(ticks);
+
+        long elapsed = System.nanoTime() - start;
+        allocated = threads.getCurrentThreadAllocatedBytes() - allocated;
+        gcCount = gcCount() - gcCount;
+        gcMillis = gcMillis() - gcMillis;
+        long[] targetingAfter = targetingCounts();
+        long requests = targetingAfter[0] - targeting[0];
+        long evaluations = targetingAfter[1] - targeting[1];
+        long searches = targetingAfter[2] - targeting[2];
+
+        long tickNanos = elapsed / ticks;
+        if (baselineTickNanos == 0) {
+            baselineTickNanos = tickNanos;
+        }
+        double bytesPerTick = (double) allocated / ticks;
+        double drift = 100.0 * (tickNanos - baselineTickNanos) / baselineTickNanos;
+        boolean ok = bytesPerTick <= budget;
+
+        System.out.printf("ticks=%d alloc=%.3f B/tick gc=%d (%d ms) tick=%d ns drift=%+.1f%% replans=%d evaluated=%d searched=%d%s%n",
+                ticksDone + ticks, bytesPerTick, gcCount, gcMillis, tickNanos, drift, requests, evaluations, searches, ok ? "" : " OVER BUDGET");
+        return ok;
+    }
+
+    public static void main(String[] args) {
+        long ticks = 300_000_000L;
+        long window = 10_000_000L;
+        long warmup = 1_000_000L;
+        double budget = 0.0;
+        long seed = 1L;
+
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--ticks" -> ticks = Long.parseLong(args[i + 1]);
+                case "--window" -> window = Long.parseLong(args[i + 1]);
+                case "--warmup" -> warmup = Long.parseLong(args[i + 1]);
+                case "--budget" -> budget = Double.parseDouble(args[i + 1]);
+                case "--seed" -> seed = Long.parseLong(args[i + 1]);
+                default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+
+        SoakTest soak = new SoakTest(seed);
+        // Warm up first so class loading and the interpreter do not count against the budget. Going
+        // through run in short calls gets it compiled the way the windows call it, instead of only
+        // on-stack replaced, whose deoptimization shows up as a stray allocation in the first window.
+        for (long done = 0; done < warmup; done += WARMUP_CHUNK) {
+            soak.run(Math.min(WARMUP_CHUNK, warmup - done));
+        }
+
+        int failures = 0;
+        for (long done = 0; done < ticks; done += window) {
+            if (!soak.window(done, Math.min(window, ticks - done), budget)) {
+                failures++;
+            }
+        }
+
+        if (failures > 0) {
+            System.out.println(failures + " window(s) exceeded the allocation budget of " + budget + " B/tick");
+            System.exit(1);
+        }
+        System.out.println("Allocation budget of " + budget + " B/tick held for " + ticks + " ticks");
+    }
+}
@@ -0,0 +1,55 @@
+package game.trace;
+
+import java.nio.ByteBuffer;
+
+// One block of ticks kept as plain arrays, so recording a tick is a handful of array stores and the
+// byte layout is only produced on the writer thread.
+public class TraceBlock {
+    // Per-creature columns are laid out back to back: creature c, tick t is at c * BLOCK_TICKS + t.
+    final short[] dotsRemaining;
+    final short[] x;
+    final short[] y;
+    final byte[] direction;
+    final byte[] input;
+    final short[] dotEaten;
+    final short[] target;
+    int size;
+
+    public TraceBlock(TraceFormat format) {
+        int creatureCount = format.getPlayerCount() + format.getEnemyCount();
+        dotsRemaining = new short[TraceFormat.BLOCK_TICKS];
+        x = new short[creatureCount * TraceFormat.BLOCK_TICKS];
+        y = new short[creatureCount * TraceFormat.BLOCK_TICKS];
+        direction = new byte[creatureCount * TraceFormat.BLOCK_TICKS];
+        input = new byte[format.getPlayerCount() * TraceFormat.BLOCK_TICKS];
+        dotEaten = new short[format.getPlayerCount() * TraceFormat.BLOCK_TICKS];
+        target = new short[format.getEnemyCount() * TraceFormat.BLOCK_TICKS];
+    }
+
+    public void writeTo(ByteBuffer buffer, TraceFormat format) {
+        buffer.clear();
+        buffer.position(format.position(TraceFormat.DOTS_REMAINING, 0));
+        buffer.asShortBuffer().put(dotsRemaining);
+
+        int n = TraceFormat.BLOCK_TICKS;
+        for (int c = 0; c < format.getPlayerCount() + format.getEnemyCount(); c++) {
+            buffer.position(format.position(format.xColumn(c), 0));
+            buffer.asShortBuffer().put(x, c * n, n);
+            buffer.position(format.position(format.yColumn(c), 0));
+            buffer.asShortBuffer().put(y, c * n, n);
+            buffer.position(format.position(format.directionColumn(c), 0));
+            buffer.put(direction, c * n, n);
+        }
+        for (int p = 0; p < format.getPlayerCount(); p++) {
+            buffer.position(format.position(format.inputColumn(p), 0));
+            buffer.put(input, p * n, n);
+            buffer.position(format.position(format.dotEatenColumn(p), 0));
+            buffer.asShortBuffer().put(dotEaten, p * n, n);
+        }
+        for (int e = 0; e < format.getEnemyCount(); e++) {
+            buffer.position(format.position(format.targetColumn(e), 0));
+            buffer.asShortBuffer().put(target, e * n, n);
+        }
+        buffer.clear();
+    }
+}
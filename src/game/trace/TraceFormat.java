@@ -0,0 +1,164 @@
+package game.trace;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+// A trace is a header followed by blocks of BLOCK_TICKS ticks. Inside a block every column is
+// stored contiguously with a fixed width, so any value can be found without scanning. Ticks are
+// recorded back to back, so the game tick of a row is the first tick from the header plus its index.
+public class TraceFormat {
+    public static final int MAGIC = 0x43525447;
+    public static final int VERSION = 2;
+    public static final int HEADER_SIZE = 64;
+    public static final int BLOCK_TICKS = 4096;
+    public static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    private static final int TICK_OFFSET = 24;
+    private static final int FIRST_TICK_OFFSET = 32;
+
+    // Positions are stored in fixed point with this many steps per tile.
+    public static final int SCALE = 256;
+    private static final short ABSENT = Short.MIN_VALUE;
+
+    public static final int DOTS_REMAINING = 0;
+    private static final int FIXED_COLUMNS = 1;
+    private static final int CREATURE_COLUMNS = 3;
+    private static final int PLAYER_COLUMNS = 2;
+
+    private final int playerCount;
+    private final int enemyCount;
+    private final int mapWidth;
+
+    private final int[] columnOffsets;
+    private final int[] columnWidths;
+    private final int blockSize;
+
+    public TraceFormat(int playerCount, int enemyCount, int mapWidth) {
+        this.playerCount = playerCount;
+        this.enemyCount = enemyCount;
+        this.mapWidth = mapWidth;
+
+        int creatureCount = playerCount + enemyCount;
+        int columnCount = FIXED_COLUMNS + creatureCount * CREATURE_COLUMNS + playerCount * PLAYER_COLUMNS + enemyCount;
+        columnWidths = new int[columnCount];
+        columnWidths[DOTS_REMAINING] = Short.BYTES;
+        for (int c = 0; c < creatureCount; c++) {
+            columnWidths[xColumn(c)] = Short.BYTES;
+            columnWidths[yColumn(c)] = Short.BYTES;
+            columnWidths[directionColumn(c)] = Byte.BYTES;
+        }
+        for (int p = 0; p < playerCount; p++) {
+            columnWidths[inputColumn(p)] = Byte.BYTES;
+            columnWidths[dotEatenColumn(p)] = Short.BYTES;
+        }
+        for (int e = 0; e < enemyCount; e++) {
+            columnWidths[targetColumn(e)] = Short.BYTES;
+        }
+
+        columnOffsets = new int[columnCount];
+        int offset = 0;
+        for (int i = 0; i < columnCount; i++) {
+            columnOffsets[i] = offset;
+            offset += columnWidths[i] * BLOCK_TICKS;
+        }
+        blockSize = offset;
+    }
+
+    public static TraceFormat readHeader(ByteBuffer header) throws IOException {
+        header.order(ORDER);
+        if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION || header.getInt(20) != BLOCK_TICKS) {
+            throw new IOException("Not a version " + VERSION + " game trace");
+        }
+        return new TraceFormat(header.getInt(8), header.getInt(12), header.getInt(16));
+    }
+
+    public static long readTickCount(ByteBuffer header) {
+        return header.order(ORDER).getLong(TICK_OFFSET);
+    }
+
+    public static long readFirstTick(ByteBuffer header) {
+        return header.order(ORDER).getLong(FIRST_TICK_OFFSET);
+    }
+
+    public void writeHeader(ByteBuffer header, long firstTick, long tickCount) {
+        header.order(ORDER);
+        header.putInt(0, MAGIC);
+        header.putInt(4, VERSION);
+        header.putInt(8, playerCount);
+        header.putInt(12, enemyCount);
+        header.putInt(16, mapWidth);
+        header.putInt(20, BLOCK_TICKS);
+        header.putLong(TICK_OFFSET, tickCount);
+        header.putLong(FIRST_TICK_OFFSET, firstTick);
+    }
+
+    public static short encodePosition(double position) {
+        // Positions are never negative, so adding a half rounds without the cost of Math.round.
+        return (short) (position * SCALE + 0.5);
+    }
+
+    public static short encodeAbsent() {
+        return ABSENT;
+    }
+
+    public static float decodePosition(short position) {
+        return position == ABSENT ? Float.NaN : (float) position / SCALE;
+    }
+
+    public static int encodeDirection(int directionX, int directionY) {
+        return (directionX + 1) * 3 + directionY + 1;
+    }
+
+    public static int decodeDirectionX(int code) {
+        return code / 3 - 1;
+    }
+
+    public static int decodeDirectionY(int code) {
+        return code % 3 - 1;
+    }
+
+    public int position(int column, int tickInBlock) {
+        return columnOffsets[column] + tickInBlock * columnWidths[column];
+    }
+
+    public int xColumn(int creature) {
+        return FIXED_COLUMNS + creature * CREATURE_COLUMNS;
+    }
+
+    public int yColumn(int creature) {
+        return FIXED_COLUMNS + creature * CREATURE_COLUMNS + 1;
+    }
+
+    public int directionColumn(int creature) {
+        return FIXED_COLUMNS + creature * CREATURE_COLUMNS + 2;
+    }
+
+    public int inputColumn(int player) {
+        return FIXED_COLUMNS + (playerCount + enemyCount) * CREATURE_COLUMNS + player * PLAYER_COLUMNS;
+    }
+
+    public int dotEatenColumn(int player) {
+        return FIXED_COLUMNS + (playerCount + enemyCount) * CREATURE_COLUMNS + player * PLAYER_COLUMNS + 1;
+    }
+
+    public int targetColumn(int enemy) {
+        return FIXED_COLUMNS + (playerCount + enemyCount) * CREATURE_COLUMNS + playerCount * PLAYER_COLUMNS + enemy;
+    }
+
+    public int getPlayerCount() {
+        return playerCount;
+    }
+
+    public int getEnemyCount() {
+        return enemyCount;
+    }
+
+    public int getMapWidth() {
+        return mapWidth;
+    }
+
+    public int getBlockSize() {
+        return blockSize;
+    }
+}
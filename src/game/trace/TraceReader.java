@@ -0,0 +1,157 @@
+package game.trace;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class TraceReader implements Closeable {
+    // A single mapping is limited to 2 GB, so long traces are mapped in segments of whole blocks.
+    private static final long MAX_SEGMENT_SIZE = 1L << 30;
+
+    private final FileChannel channel;
+    private final TraceFormat format;
+    private final long firstTick;
+    private final long tickCount;
+    private final int blocksPerSegment;
+    private final MappedByteBuffer[] segments;
+
+    public TraceReader(Path path) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(TraceFormat.HEADER_SIZE);
+            while (header.hasRemaining() && channel.read(header, header.position()) >= 0) {
+                // keep reading
+            }
+            format = TraceFormat.readHeader(header);
+
+            long blockSize = format.getBlockSize();
+            long blocks = (channel.size() - TraceFormat.HEADER_SIZE) / blockSize;
+            firstTick = TraceFormat.readFirstTick(header);
+            long recorded = TraceFormat.readTickCount(header);
+            // A writer that never got to close leaves a tick count of 0; fall back to the full blocks.
+            tickCount = recorded > 0 ? Math.min(recorded, blocks * TraceFormat.BLOCK_TICKS) : blocks * TraceFormat.BLOCK_TICKS;
+
+            blocksPerSegment = (int) Math.max(1L, MAX_SEGMENT_SIZE / blockSize);
+            int segmentCount = (int) ((blocks + blocksPerSegment - 1) / blocksPerSegment);
+            segments = new MappedByteBuffer[segmentCount];
+            for (int i = 0; i < segmentCount; i++) {
+                long firstBlock = (long) i * blocksPerSegment;
+                long size = Math.min(blocksPerSegment, blocks - firstBlock) * blockSize;
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, TraceFormat.HEADER_SIZE + firstBlock * blockSize, size);
+                segments[i].order(TraceFormat.ORDER);
+            }
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private int position(int column, long tick) {
+        long block = tick / TraceFormat.BLOCK_TICKS;
+        long blockInSegment = block % blocksPerSegment;
+        return (int) (blockInSegment * format.getBlockSize()) + format.position(column, (int) (tick % TraceFormat.BLOCK_TICKS));
+    }
+
+    private MappedByteBuffer segment(long tick) {
+        if (tick < 0 || tick >= tickCount) {
+            throw new IndexOutOfBoundsException("Tick " + tick + " outside trace of " + tickCount + " ticks");
+        }
+        return segments[(int) (tick / TraceFormat.BLOCK_TICKS / blocksPerSegment)];
+    }
+
+    public long getTick(long tick) {
+        segment(tick);
+        return firstTick + tick;
+    }
+
+    public int getDotsRemaining(long tick) {
+        return segment(tick).getShort(position(TraceFormat.DOTS_REMAINING, tick));
+    }
+
+    public float getX(int creature, long tick) {
+        return TraceFormat.decodePosition(segment(tick).getShort(position(format.xColumn(creature), tick)));
+    }
+
+    public float getY(int creature, long tick) {
+        return TraceFormat.decodePosition(segment(tick).getShort(position(format.yColumn(creature), tick)));
+    }
+
+    public int getDirectionX(int creature, long tick) {
+        return TraceFormat.decodeDirectionX(segment(tick).get(position(format.directionColumn(creature), tick)));
+    }
+
+    public int getDirectionY(int creature, long tick) {
+        return TraceFormat.decodeDirectionY(segment(tick).get(position(format.directionColumn(creature), tick)));
+    }
+
+    public int getInputDirectionX(int player, long tick) {
+        return TraceFormat.decodeDirectionX(segment(tick).get(position(format.inputColumn(player), tick)));
+    }
+
+    public int getInputDirectionY(int player, long tick) {
+        return TraceFormat.decodeDirectionY(segment(tick).get(position(format.inputColumn(player), tick)));
+    }
+
+    public int getEatenDotIndex(int player, long tick) {
+        return segment(tick).getShort(position(format.dotEatenColumn(player), tick));
+    }
+
+    public int getTargetX(int enemy, long tick) {
+        return segment(tick).getShort(position(format.targetColumn(enemy), tick)) % format.getMapWidth();
+    }
+
+    public int getTargetY(int enemy, long tick) {
+        return segment(tick).getShort(position(format.targetColumn(enemy), tick)) / format.getMapWidth();
+    }
+
+    public void readX(int creature, long fromTick, float[] destination, int offset, int length) {
+        readPositions(format.xColumn(creature), fromTick, destination, offset, length);
+    }
+
+    public void readY(int creature, long fromTick, float[] destination, int offset, int length) {
+        readPositions(format.yColumn(creature), fromTick, destination, offset, length);
+    }
+
+    private void readPositions(int column, long fromTick, float[] destination, int offset, int length) {
+        if (length == 0) {
+            return;
+        }
+        segment(fromTick);
+        segment(fromTick + length - 1);
+
+        // Within a block a column is contiguous, so walk it a block at a time.
+        long tick = fromTick;
+        int copied = 0;
+        while (copied < length) {
+            int inBlock = (int) Math.min(length - copied, TraceFormat.BLOCK_TICKS - tick % TraceFormat.BLOCK_TICKS);
+            MappedByteBuffer segment = segment(tick);
+            int position = position(column, tick);
+            for (int i = 0; i < inBlock; i++) {
+                destination[offset + copied + i] = TraceFormat.decodePosition(segment.getShort(position + i * Short.BYTES));
+            }
+            copied += inBlock;
+            tick += inBlock;
+        }
+    }
+
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    public int getPlayerCount() {
+        return format.getPlayerCount();
+    }
+
+    public int getEnemyCount() {
+        return format.getEnemyCount();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,179 @@
+package game.trace;
+
+import game.Game;
+import game.objects.creatures.Creature;
+import game.objects.creatures.Player;
+import game.objects.creatures.enemy.Enemy;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+public class TraceWriter implements Closeable {
+    private static final int BLOCKS = 3;
+
+    private final TraceFormat format;
+    private final FileChannel channel;
+    private final BlockingQueue<TraceBlock> free;
+    private final BlockingQueue<TraceBlock> full;
+    private final ByteBuffer buffer;
+    private final Thread thread;
+
+    private TraceBlock block;
+    private long firstTick;
+    private long tickCount;
+    private volatile IOException failure;
+
+    public TraceWriter(Path path, Game game) throws IOException {
+        format = new TraceFormat(game.getPlayers().size(), game.getEnemies().length, game.getMap().getWidth());
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        writeHeader(0L);
+        channel.position(TraceFormat.HEADER_SIZE);
+
+        free = new ArrayBlockingQueue<>(BLOCKS);
+        full = new ArrayBlockingQueue<>(BLOCKS + 1);
+        for (int i = 0; i < BLOCKS; i++) {
+            free.add(new TraceBlock(format));
+        }
+        block = free.poll();
+        buffer = ByteBuffer.allocateDirect(format.getBlockSize()).order(TraceFormat.ORDER);
+
+        thread = new Thread(this::drain, "TraceWriter");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void writeHeader(long tickCount) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(TraceFormat.HEADER_SIZE);
+        format.writeHeader(header, firstTick, tickCount);
+        while (header.hasRemaining()) {
+            channel.write(header, header.position());
+        }
+    }
+
+    public void record(Game game) {
+        // The block only changes in submit, so keep it in a local instead of reloading the field.
+        TraceBlock block = this.block;
+        int t = block.size;
+        int n = TraceFormat.BLOCK_TICKS;
+        if (tickCount == 0) {
+            firstTick = game.getTickCount();
+        }
+        block.dotsRemaining[t] = (short) game.getMap().dotCount();
+
+        List<Player> players = game.getPlayers();
+        int playerCount = format.getPlayerCount();
+        for (int p = 0; p < playerCount; p++) {
+            Player player = p < players.size() ? players.get(p) : null;
+            recordCreature(block, p * n + t, player);
+            if (player != null) {
+                block.input[p * n + t] = (byte) TraceFormat.encodeDirection(player.getPreferredDirectionX(), player.getPreferredDirectionY());
+                block.dotEaten[p * n + t] = (short) player.getEatenDotIndex();
+            } else {
+                block.input[p * n + t] = (byte) TraceFormat.encodeDirection(0, 0);
+                block.dotEaten[p * n + t] = -1;
+            }
+        }
+
+        Enemy[] enemies = game.getEnemies();
+        int mapWidth = format.getMapWidth();
+        for (int e = 0; e < format.getEnemyCount(); e++) {
+            Enemy enemy = enemies[e];
+            recordCreature(block, (playerCount + e) * n + t, enemy);
+            block.target[e * n + t] = (short) (enemy.getTargetY() * mapWidth + enemy.getTargetX());
+        }
+
+        tickCount++;
+        if (++block.size == n) {
+            submit();
+        }
+    }
+
+    private static void recordCreature(TraceBlock block, int i, Creature c) {
+        if (c == null) {
+            // The player left the game: keep the fixed layout and mark the slot as empty.
+            block.x[i] = TraceFormat.encodeAbsent();
+            block.y[i] = TraceFormat.encodeAbsent();
+            block.direction[i] = (byte) TraceFormat.encodeDirection(0, 0);
+            return;
+        }
+        block.x[i] = TraceFormat.encodePosition(c.getCenterX());
+        block.y[i] = TraceFormat.encodePosition(c.getCenterY());
+        block.direction[i] = (byte) TraceFormat.encodeDirection(c.getMovingDirectionX(), c.getMovingDirectionY());
+    }
+
+    private void submit() {
+        try {
+            // Only blocks the tick if the disk has fallen BLOCKS blocks behind.
+            full.put(block);
+            block = free.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while handing off a trace block", e);
+        }
+        block.size = 0;
+    }
+
+    private void drain() {
+        try {
+            TraceBlock next;
+            boolean firstBlock = true;
+            while ((next = full.take()).size > 0) {
+                if (failure == null) {
+                    try {
+                        next.writeTo(buffer, format);
+                        while (buffer.hasRemaining()) {
+                            channel.write(buffer);
+                        }
+                        if (firstBlock) {
+                            // Record the first tick now, so a trace whose writer never closes still
+                            // numbers its ticks right. A tick count of 0 tells readers to count blocks.
+                            // The queue hand-off makes the recording thread's firstTick visible here.
+                            writeHeader(0L);
+                            firstBlock = false;
+                        }
+                    } catch (IOException e) {
+                        failure = e;
+                    }
+                }
+                free.put(next);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (block.size > 0) {
+            // The last block is written whole; the tick count in the header says how much of it is used.
+            submit();
+        }
+        try {
+            // An empty block tells the writer thread to stop.
+            full.put(block);
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        try {
+            if (failure != null) {
+                throw failure;
+            }
+            writeHeader(tickCount);
+        } finally {
+            channel.close();
+        }
+    }
+}